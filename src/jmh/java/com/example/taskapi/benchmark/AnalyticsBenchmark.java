@@ -0,0 +1,85 @@
+package com.example.taskapi.benchmark;
+
+import com.example.taskapi.dto.TaskAnalytics;
+import com.example.taskapi.dto.TaskAnalytics.Bucket;
+import com.example.taskapi.service.TaskAnalyticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A year of daily throughput and cycle time, answered from the rollup table and, for comparison,
+ * by grouping the tasks table directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AnalyticsBenchmark {
+    
+    private static final String TASKS_BY_DAY =
+        "SELECT DATE_TRUNC('day', t.created_at), t.priority, t.category_id, COUNT(*) " +
+        "FROM tasks t WHERE t.created_at >= ? AND t.created_at < ? " +
+        "GROUP BY DATE_TRUNC('day', t.created_at), t.priority, t.category_id " +
+        "UNION ALL " +
+        "SELECT DATE_TRUNC('day', t.completed_at), t.priority, t.category_id, " +
+        "SUM(DATEDIFF('SECOND', t.created_at, t.completed_at)) " +
+        "FROM tasks t WHERE t.completed_at >= ? AND t.completed_at < ? " +
+        "GROUP BY DATE_TRUNC('day', t.completed_at), t.priority, t.category_id";
+    
+    @Param({"100000", "1000000"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private TaskAnalyticsService analyticsService;
+    private JdbcTemplate jdbc;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkDatabase.start(rows);
+        analyticsService = context.getBean(TaskAnalyticsService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        to = LocalDateTime.now();
+        from = to.minusDays(365);
+        // The rollups are built by the first scheduled refresh after startup
+        while (analyticsService.getAnalytics(Bucket.DAY, from, to).refreshedThrough() == null) {
+            Thread.sleep(100);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TaskAnalytics dailyFromRollups() {
+        return analyticsService.getAnalytics(Bucket.DAY, from, to);
+    }
+    
+    @Benchmark
+    public List<Map<String, Object>> dailyFromTasksTable() {
+        return jdbc.queryForList(TASKS_BY_DAY, from, to, from, to);
+    }
+}
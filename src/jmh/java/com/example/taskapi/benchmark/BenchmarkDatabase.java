@@ -0,0 +1,70 @@
+package com.example.taskapi.benchmark;
+
+import com.example.taskapi.TaskApiApplication;
+import com.example.taskapi.tenant.TenantContext;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application against an in-memory H2 database seeded with a given number of tasks.
+ * The database is seeded in a first context and the benchmark context is started afterwards,
+ * so everything the application builds at startup sees the full data set.
+ */
+final class BenchmarkDatabase {
+    
+    private static final String[] ARGS = {
+        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+        "--spring.jpa.show-sql=false",
+        "--spring.h2.console.enabled=false",
+        // DevTools would shut the in-memory database down when the seeding context closes
+        "--spring.autoconfigure.exclude=org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration",
+        "--logging.level.root=WARN",
+        "--logging.level.org.hibernate.SQL=WARN",
+        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+    };
+    
+    private BenchmarkDatabase() {
+    }
+    
+    static ConfigurableApplicationContext start(int rows) {
+        try (ConfigurableApplicationContext seeding = run()) {
+            seed(seeding.getBean(JdbcTemplate.class), rows);
+        }
+        return run();
+    }
+    
+    private static ConfigurableApplicationContext run() {
+        return new SpringApplicationBuilder(TaskApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .run(ARGS);
+    }
+    
+    // Generates rows in one statement, all for the default tenant. Their small ids never meet the
+    // generated ones, which start far above. Half of the due dates are in the past so overdue queries have hits.
+    // Creation times are spread over the past year and completed tasks finish up to three days later.
+    private static void seed(JdbcTemplate jdbc, int rows) {
+        jdbc.update("DELETE FROM task_rollups");
+        jdbc.update("DELETE FROM task_rollup_state");
+        jdbc.update("DELETE FROM tasks");
+        jdbc.update("DELETE FROM archived_tasks");
+        jdbc.update("DELETE FROM categories");
+        long categoryId = 1;
+        jdbc.update("INSERT INTO categories (id, tenant_id, name, description, created_at, updated_at) " +
+                    "VALUES (?, ?, 'Benchmark', 'Benchmark tasks', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                    categoryId, TenantContext.DEFAULT_TENANT);
+        jdbc.update("INSERT INTO tasks (id, tenant_id, title, description, priority, status, category_id, due_date, " +
+                    "created_at, completed_at, updated_at) " +
+                    "SELECT X, ?, CONCAT('Task ', X), CONCAT('Description for benchmark task ', X), " +
+                    "CASE MOD(X, 4) WHEN 0 THEN 'LOW' WHEN 1 THEN 'MEDIUM' WHEN 2 THEN 'HIGH' ELSE 'URGENT' END, " +
+                    "CASE MOD(X / 4, 4) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'IN_PROGRESS' WHEN 2 THEN 'COMPLETED' ELSE 'CANCELLED' END, " +
+                    "?, DATEADD('HOUR', MOD(X, 1000) - 500, CURRENT_TIMESTAMP), CREATED, " +
+                    "CASE WHEN MOD(X / 4, 4) = 2 THEN LEAST(DATEADD('MINUTE', MOD(X, 4320), CREATED), CURRENT_TIMESTAMP) END, " +
+                    "CURRENT_TIMESTAMP " +
+                    "FROM (SELECT X, DATEADD('SECOND', (X - ?) * 31536000 / ?, CURRENT_TIMESTAMP) AS CREATED " +
+                    "FROM SYSTEM_RANGE(1, ?))", TenantContext.DEFAULT_TENANT, categoryId, rows, rows, rows);
+    }
+}
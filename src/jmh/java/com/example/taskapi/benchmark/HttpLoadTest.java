@@ -0,0 +1,158 @@
+package com.example.taskapi.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for comparing server configurations (for example platform
+ * threads against the "virtual" profile). Each client thread sends requests back to back and
+ * records its latencies; the run reports throughput and latency percentiles per scenario.
+ * With a fourth argument, the list scenario is repeated while that many idle clients hold
+ * long-polling {@code /api/tasks/changes?wait=} requests open.
+ *
+ * <pre>
+ * mvn -Pbenchmarks compile exec:java -Dexec.mainClass=com.example.taskapi.benchmark.HttpLoadTest \
+ *     -Dexec.args="http://localhost:8080 200 20 2000"
+ * </pre>
+ *
+ * Arguments: base URL, concurrent clients, seconds per scenario, idle long-poll connections.
+ */
+public final class HttpLoadTest {
+    
+    private static final Pattern NEXT_TOKEN = Pattern.compile("\"nextToken\":\"([^\"]+)\"");
+    
+    private HttpLoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int longPolls = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(4))
+            .build();
+        
+        HttpRequest list = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks?limit=100")).GET().build();
+        HttpRequest create = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load test task\",\"priority\":\"HIGH\"}"))
+            .build();
+        
+        // Warm up the server before measuring
+        run(client, create, clients, 5);
+        run(client, list, clients, 5);
+        
+        report("POST /api/tasks", run(client, create, clients, seconds), seconds);
+        report("GET /api/tasks", run(client, list, clients, seconds), seconds);
+        if (longPolls > 0) {
+            AtomicBoolean polling = new AtomicBoolean(true);
+            AtomicLong polls = new AtomicLong();
+            // Start at the head of the feed so the polls have nothing to return until something is written
+            String since = LocalDateTime.now().toString();
+            for (int i = 0; i < longPolls; i++) {
+                longPoll(client, baseUrl, since, polling, polls);
+            }
+            Thread.sleep(2000);
+            report("GET /api/tasks + " + longPolls + " long polls", run(client, list, clients, seconds), seconds);
+            polling.set(false);
+            System.out.printf("long polls answered during the run: %d%n", polls.get());
+        }
+        System.exit(0);
+    }
+    
+    // Keeps one change feed request outstanding, re-issuing it whenever it returns
+    private static void longPoll(HttpClient client, String baseUrl, String since, AtomicBoolean polling, AtomicLong polls) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/changes?wait=30&since=" + since))
+            .timeout(Duration.ofSeconds(90))
+            .GET()
+            .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            if (!polling.get()) {
+                return;
+            }
+            polls.incrementAndGet();
+            String next = error == null && response.statusCode() == 200 ? nextToken(response.body()) : since;
+            longPoll(client, baseUrl, next, polling, polls);
+        });
+    }
+    
+    private static String nextToken(String changes) {
+        Matcher matcher = NEXT_TOKEN.matcher(changes);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No nextToken in change feed response");
+        }
+        return matcher.group(1);
+    }
+    
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+        List<long[]> perClient = new ArrayList<>(clients);
+        for (Future<long[]> future : futures) {
+            perClient.add(future.get());
+        }
+        pool.shutdown();
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get());
+    }
+    
+    private static void report(String scenario, Result result, int seconds) {
+        long[] latencies = result.latencies();
+        System.out.printf("%-16s requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+            scenario, latencies.length, result.errors(), latencies.length / (double) seconds,
+            percentile(latencies, 0.50), percentile(latencies, 0.99),
+            latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1_000_000.0);
+    }
+    
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+    
+    private record Result(long[] latencies, long errors) {
+    }
+}
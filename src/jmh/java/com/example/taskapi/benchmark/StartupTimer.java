@@ -0,0 +1,92 @@
+package com.example.taskapi.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures time to first request: starts the server command, polls a URL until it answers 200,
+ * and reports the elapsed time and the server's resident memory at that point (Linux only, read
+ * from /proc). The server is stopped after each run.
+ *
+ * <pre>
+ * mvn -Pbenchmarks compile exec:java -Dexec.mainClass=com.example.taskapi.benchmark.StartupTimer \
+ *     -Dexec.args="5 http://localhost:8080/api/tasks?limit=1 java -jar target/task-api-1.0.0.jar"
+ * </pre>
+ *
+ * Arguments: runs, URL, then the command that starts the server.
+ */
+public final class StartupTimer {
+    
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration GIVE_UP_AFTER = Duration.ofMinutes(3);
+    
+    private StartupTimer() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        URI url = URI.create(args[1]);
+        List<String> command = Arrays.asList(args).subList(2, args.length);
+        
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).GET().build();
+        long[] millis = new long[runs];
+        long[] rssKb = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            Process server = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(System.getProperty("java.io.tmpdir"), "startup-timer.log")))
+                .start();
+            long started = System.nanoTime();
+            try {
+                awaitFirstResponse(client, request, server);
+                millis[run] = (System.nanoTime() - started) / 1_000_000;
+                rssKb[run] = residentKb(server.pid());
+                System.out.printf("run %d: first request after %d ms, RSS %d MB%n", run + 1, millis[run], rssKb[run] / 1024);
+            } finally {
+                server.destroy();
+                server.waitFor();
+            }
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rssKb);
+        System.out.printf("median: first request after %d ms, RSS %d MB%n", millis[runs / 2], rssKb[runs / 2] / 1024);
+    }
+    
+    private static void awaitFirstResponse(HttpClient client, HttpRequest request, Process server) throws Exception {
+        long deadline = System.nanoTime() + GIVE_UP_AFTER.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server exited with status " + server.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        throw new IllegalStateException("No response within " + GIVE_UP_AFTER);
+    }
+    
+    private static long residentKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.taskapi.benchmark;
+
+import com.example.taskapi.dto.TaskSummary;
+import com.example.taskapi.json.JsonConfiguration;
+import com.example.taskapi.model.Category;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of task lists with a nested category, and of the equivalent summary
+ * projections. {@code mapper=default} is a plain Boot-style ObjectMapper, {@code mapper=tuned}
+ * adds the application's {@link JsonConfiguration}. Besides JSON, task lists are also written
+ * gzip-compressed, as Tomcat sends them, and as Smile. The bytes per task of each encoding are
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+    
+    @Param({"100", "1000", "10000"})
+    public int size;
+    
+    @Param({"default", "tuned"})
+    public String mapper;
+    
+    private ObjectMapper objectMapper;
+    private ObjectMapper smileMapper;
+    private List<Task> tasks;
+    private List<TaskSummary> summaries;
+    
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (mapper.equals("tuned")) {
+            JsonConfiguration configuration = new JsonConfiguration();
+            builder.modulesToInstall(configuration.blackbirdModule());
+            configuration.isoLocalDateTimeSerializer().customize(builder);
+        }
+        objectMapper = builder.build();
+        smileMapper = builder.factory(new SmileFactory()).build();
+        
+        LocalDateTime now = LocalDateTime.now();
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Work");
+        category.setDescription("Work-related tasks");
+        category.setCreatedAt(now);
+        category.setUpdatedAt(now);
+        Priority[] priorities = Priority.values();
+        Status[] statuses = Status.values();
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setId((long) i + 1);
+            task.setTitle("Task " + i);
+            task.setDescription("Description for benchmark task " + i + ", long enough to look like a real one");
+            task.setPriority(priorities[i % priorities.length]);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setCategory(category);
+            task.setDueDate(now.plusHours(i % 1000 - 500));
+            task.setCreatedAt(now.minusSeconds(i));
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+        summaries = tasks.stream()
+            .map(task -> new TaskSummary(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(),
+                task.getDueDate(), category.getId(), category.getName(), task.getUpdatedAt()))
+            .toList();
+        
+        System.out.printf("Bytes per task (%d tasks): json %d, gzip %d, smile %d%n", size,
+            serializeTaskList().length / size, serializeTaskListGzip().length / size,
+            serializeTaskListSmile().length / size);
+    }
+    
+    @Benchmark
+    public byte[] serializeTaskList() throws IOException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+    
+    // Deflater's default level, which is what Tomcat's response compression uses
+    @Benchmark
+    public byte[] serializeTaskListGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, tasks);
+        }
+        return bytes.toByteArray();
+    }
+    
+    @Benchmark
+    public byte[] serializeTaskListSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(tasks);
+    }
+    
+    @Benchmark
+    public byte[] serializeSummaryList() throws IOException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.taskapi.benchmark;
+
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against tables of increasing size. Each benchmark gets a freshly seeded
+ * database, so writes from one benchmark do not skew another.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskServiceBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows);
+        taskService = context.getBean(TaskService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Task createTask() {
+        Task task = new Task();
+        task.setTitle("Benchmark task");
+        task.setDescription("Created by TaskServiceBenchmark");
+        return taskService.createTask(task);
+    }
+    
+    @Benchmark
+    public Task updateTask() {
+        Task details = new Task();
+        details.setTitle("Updated " + System.nanoTime());
+        details.setPriority(null);
+        details.setStatus(null);
+        return taskService.updateTask(randomId(), details);
+    }
+    
+    @Benchmark
+    public List<Task> getTasksByStatus() {
+        return taskService.getTasksByStatus(Status.PENDING, null, null);
+    }
+    
+    @Benchmark
+    public List<Task> getOverdueTasks() {
+        return taskService.getOverdueTasks(null, null);
+    }
+    
+    @Benchmark
+    public List<Task> getAllTasks() {
+        return taskService.getAllTasks(null, null);
+    }
+    
+    // Full-table read: streams every row, the path that used to be a single findAll()
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void exportAllTasks(Blackhole blackhole) {
+        taskService.exportTasks(blackhole::consume);
+    }
+    
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.taskapi.benchmark;
+
+import com.example.taskapi.dto.TaskText;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.service.InvertedIndex;
+import com.example.taskapi.tenant.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text search over an in-memory index of synthetic tasks. Words are drawn from a skewed
+ * vocabulary so some terms are in a large share of the tasks and most are rare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TextIndexBenchmark {
+    
+    private static final int VOCABULARY = 20_000;
+    
+    @Param({"100000", "1000000"})
+    public int tasks;
+    
+    private InvertedIndex index;
+    private String[] words;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36) + (char) ('a' + i % 26);
+        }
+        Priority[] priorities = Priority.values();
+        Status[] statuses = Status.values();
+        index = new InvertedIndex();
+        for (int i = 1; i <= tasks; i++) {
+            index.put(null, new TaskText(TenantContext.DEFAULT_TENANT, (long) i, sentence(random, 5), sentence(random, 20),
+                statuses[i % statuses.length], priorities[i % priorities.length], (long) (i % 20) + 1));
+        }
+    }
+    
+    // Squaring a uniform draw skews word choice towards the start of the vocabulary
+    private String sentence(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            double skewed = random.nextDouble();
+            text.append(words[(int) (skewed * skewed * skewed * VOCABULARY)]).append(' ');
+        }
+        return text.toString();
+    }
+    
+    @Benchmark
+    public List<InvertedIndex.Hit> commonTerm() {
+        return index.search(words[0], null, null, null, 100);
+    }
+    
+    @Benchmark
+    public List<InvertedIndex.Hit> rareTerm() {
+        return index.search(words[VOCABULARY - 10], null, null, null, 100);
+    }
+    
+    @Benchmark
+    public List<InvertedIndex.Hit> twoTerms() {
+        return index.search(words[3] + " " + words[500], null, null, null, 100);
+    }
+    
+    @Benchmark
+    public List<InvertedIndex.Hit> twoTermsFiltered() {
+        return index.search(words[3] + " " + words[500], Status.PENDING, Priority.HIGH, null, 100);
+    }
+    
+    @Benchmark
+    public List<InvertedIndex.Hit> prefix() {
+        return index.search(words[7] + " " + words[2000].substring(0, 3), null, null, null, 100);
+    }
+}
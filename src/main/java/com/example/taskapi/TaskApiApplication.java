@@ -1,12 +1,55 @@
 package com.example.taskapi;
 
+import com.example.taskapi.model.SnowflakeIdGenerator;
+import com.example.taskapi.model.WorkerIdLease;
+import com.example.taskapi.service.CategoryService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
 
 @SpringBootApplication
+@EnableScheduling
+// Run the cache interceptor outside the transaction so evictions happen after commit
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 public class TaskApiApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(TaskApiApplication.class, args);
     }
+
+    // Overdue counts change as time passes, so this cache expires sooner than the shared spec.
+    // It holds one entry per tenant.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> categoryTaskCountsCache(
+            @Value("${task-api.categories.counts-ttl:PT1M}") Duration ttl,
+            @Value("${task-api.categories.counts-max-tenants:10000}") long maxTenants) {
+        return cacheManager -> cacheManager.registerCustomCache(CategoryService.CATEGORY_TASK_COUNTS_CACHE,
+            Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxTenants).recordStats().build());
+    }
+    
+    // Each instance writing to the same database needs its own worker id for generated ids
+    @Bean
+    public WorkerIdLease workerIdLease(@Value("${task-api.ids.worker-id:auto}") String workerId,
+                                       @Value("${task-api.ids.lease-duration:PT1M}") Duration leaseDuration,
+                                       JdbcTemplate jdbcTemplate) {
+        return workerId.equalsIgnoreCase("auto")
+            ? WorkerIdLease.leased(jdbcTemplate, leaseDuration)
+            : WorkerIdLease.fixed(Long.parseLong(workerId.trim()));
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeWorkerId(WorkerIdLease workerIdLease) {
+        return properties -> properties.put(SnowflakeIdGenerator.WORKER_ID_SETTING, workerIdLease);
+    }
 }
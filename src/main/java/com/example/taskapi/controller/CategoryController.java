@@ -2,8 +2,11 @@ package com.example.taskapi.controller;
 
 import com.example.taskapi.model.Category;
 import com.example.taskapi.service.CategoryService;
+import com.example.taskapi.web.EntityTags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +17,7 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/categories")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CategoryController {
     
     private final CategoryService categoryService;
@@ -23,15 +27,19 @@ public class CategoryController {
         this.categoryService = categoryService;
     }
     
+    // withCounts=true adds open, completed and overdue task counts from one cached grouped query
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
+    public ResponseEntity<List<?>> getAllCategories(@RequestParam(defaultValue = "false") boolean withCounts) {
+        if (withCounts) {
+            return ResponseEntity.ok(categoryService.getAllCategoriesWithCounts());
+        }
         return ResponseEntity.ok(categoryService.getAllCategories());
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
         return categoryService.getCategoryById(id)
-            .map(ResponseEntity::ok)
+            .map(category -> ResponseEntity.ok().eTag(EntityTags.of(category)).body(category))
             .orElse(ResponseEntity.notFound().build());
     }
     
@@ -49,10 +57,15 @@ public class CategoryController {
     
     @PutMapping("/{id}")
     public ResponseEntity<?> updateCategory(@PathVariable Long id, 
-                                                     @Valid @RequestBody Category category) {
+                                                     @Valid @RequestBody Category category,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestHeader(value = TaskController.PREFER, required = false) String prefer) {
         try {
-            Category updated = categoryService.updateCategory(id, category);
-            return ResponseEntity.ok(updated);
+            Category updated = categoryService.updateCategory(id, category, EntityTags.expectedVersion(ifMatch, id));
+            if (TaskController.isReturnMinimal(prefer)) {
+                return TaskController.minimal(EntityTags.of(updated));
+            }
+            return ResponseEntity.ok().eTag(EntityTags.of(updated)).body(updated);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -2,35 +2,102 @@ package com.example.taskapi.controller;
 
 import com.example.taskapi.repository.CategoryRepository;
 import com.example.taskapi.repository.TaskRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class HealthController {
     
     private final TaskRepository taskRepository;
     private final CategoryRepository categoryRepository;
+    private final CacheManager cacheManager;
+    private final DataSource dataSource;
+    private final long countsTtlNanos;
+    private volatile EntityCounts counts;
     
     @Autowired
-    public HealthController(TaskRepository taskRepository, CategoryRepository categoryRepository) {
+    public HealthController(TaskRepository taskRepository, CategoryRepository categoryRepository,
+                            CacheManager cacheManager, DataSource dataSource,
+                            @Value("${task-api.health.counts-ttl:PT30S}") Duration countsTtl) {
         this.taskRepository = taskRepository;
         this.categoryRepository = categoryRepository;
+        this.cacheManager = cacheManager;
+        this.dataSource = dataSource;
+        this.countsTtlNanos = countsTtl.toNanos();
     }
     
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
+        boolean connected = databaseReachable();
         Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
-        health.put("database", "connected");
-        health.put("tasks_count", taskRepository.count());
-        health.put("categories_count", categoryRepository.count());
-        return ResponseEntity.ok(health);
+        health.put("status", connected ? "UP" : "DOWN");
+        health.put("database", connected ? "connected" : "unreachable");
+        if (connected) {
+            EntityCounts current = currentCounts();
+            health.put("tasks_count", current.tasks());
+            health.put("categories_count", current.categories());
+        }
+        health.put("caches", cacheStats());
+        return ResponseEntity.status(connected ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(health);
+    }
+    
+    // Borrowing a pooled connection and validating it is far cheaper than running a query against the tables
+    private boolean databaseReachable() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    // The row counts are informational, so probes reuse the last values until they are older than the TTL
+    private EntityCounts currentCounts() {
+        EntityCounts current = counts;
+        if (current == null || System.nanoTime() - current.takenAt() > countsTtlNanos) {
+            current = new EntityCounts(taskRepository.count(), categoryRepository.count(), System.nanoTime());
+            counts = current;
+        }
+        return current;
+    }
+    
+    // Hit/miss/eviction counters for each Caffeine cache; empty when caching is disabled
+    private Map<String, Object> cacheStats() {
+        Map<String, Object> caches = new HashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("size", caffeineCache.getNativeCache().estimatedSize());
+                entry.put("hits", stats.hitCount());
+                entry.put("misses", stats.missCount());
+                entry.put("evictions", stats.evictionCount());
+                entry.put("hit_rate", stats.hitRate());
+                caches.put(name, entry);
+            }
+        }
+        return caches;
+    }
+    
+    private record EntityCounts(long tasks, long categories, long takenAt) {
     }
 }
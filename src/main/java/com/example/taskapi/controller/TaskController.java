@@ -1,60 +1,234 @@
 package com.example.taskapi.controller;
 
+import com.example.taskapi.dto.BatchItemResult;
+import com.example.taskapi.dto.BatchStatusUpdate;
+import com.example.taskapi.dto.IngestionStatus;
+import com.example.taskapi.dto.TaskAnalytics;
+import com.example.taskapi.dto.TaskChanges;
+import com.example.taskapi.dto.TaskSearchCriteria;
+import com.example.taskapi.dto.TaskState;
+import com.example.taskapi.dto.TaskSummary;
 import com.example.taskapi.model.Task;
 import com.example.taskapi.model.Task.Priority;
 import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.service.TaskAnalyticsService;
+import com.example.taskapi.service.TaskChangeFeed;
+import com.example.taskapi.service.TaskEventBroadcaster;
+import com.example.taskapi.service.TaskIngestionQueue;
 import com.example.taskapi.service.TaskService;
+import com.example.taskapi.web.EntityTags;
+import com.example.taskapi.web.SseEventSink;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/tasks")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TaskController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final String PREFER = "Prefer";
+    
     private final TaskService taskService;
+    private final TaskIngestionQueue ingestionQueue;
+    private final TaskChangeFeed changeFeed;
+    private final TaskEventBroadcaster eventBroadcaster;
+    private final TaskAnalyticsService analyticsService;
+    private final Duration eventStreamTimeout;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
     
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskIngestionQueue ingestionQueue, TaskChangeFeed changeFeed,
+                          TaskEventBroadcaster eventBroadcaster, TaskAnalyticsService analyticsService,
+                          ObjectMapper objectMapper,
+                          @Value("${task-api.events.timeout:PT30M}") Duration eventStreamTimeout) {
         this.taskService = taskService;
+        this.ingestionQueue = ingestionQueue;
+        this.changeFeed = changeFeed;
+        this.eventBroadcaster = eventBroadcaster;
+        this.analyticsService = analyticsService;
+        this.eventStreamTimeout = eventStreamTimeout;
+        this.objectMapper = objectMapper;
+        this.exportWriter = objectMapper.writerFor(Task.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
     
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<List<?>> getAllTasks(@RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(defaultValue = "full") String view) {
+        if (isSummaryView(view)) {
+            return summaryPage(taskService.getTaskSummaries(after, limit), limit);
+        }
+        return page(taskService.getAllTasks(after, limit), limit);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(@ModelAttribute TaskSearchCriteria criteria) {
+        List<Task> tasks = taskService.searchTasks(criteria);
+        return ResponseEntity.ok().eTag(EntityTags.of(tasks)).body(tasks);
+    }
+    
+    // Ranked full-text search; the last word of q also matches as a prefix
+    @GetMapping("/search/text")
+    public ResponseEntity<List<?>> searchText(@RequestParam String q,
+                                              @RequestParam(required = false) Status status,
+                                              @RequestParam(required = false) Priority priority,
+                                              @RequestParam(required = false) Long categoryId,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(defaultValue = "full") String view) {
+        if (isSummaryView(view)) {
+            List<TaskSummary> summaries = taskService.searchTextSummaries(q, status, priority, categoryId, limit);
+            return ResponseEntity.ok().eTag(EntityTags.ofSummaries(summaries)).body(summaries);
+        }
+        List<Task> tasks = taskService.searchText(q, status, priority, categoryId, limit);
+        return ResponseEntity.ok().eTag(EntityTags.of(tasks)).body(tasks);
+    }
+    
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getChanges(@RequestParam(required = false) String since,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.getChangesSince(since, limit));
+    }
+    
+    // Long poll: with nothing new, holds the request (but no thread) for up to wait seconds
+    @GetMapping(value = "/changes", params = "wait")
+    public CompletableFuture<TaskChanges> awaitChanges(@RequestParam(required = false) String since,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam int wait) {
+        return changeFeed.awaitChanges(since, limit, Duration.ofSeconds(wait));
+    }
+    
+    // Server-sent events for committed task changes; a reconnecting client resumes from Last-Event-ID
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@RequestParam(required = false) Long categoryId,
+                                                   @RequestParam(required = false) Status status,
+                                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(eventStreamTimeout.toMillis());
+        Optional<TaskEventBroadcaster.Subscription> subscription =
+            eventBroadcaster.subscribe(categoryId, status, lastEventId, new SseEventSink(emitter));
+        if (subscription.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
+        }
+        emitter.onCompletion(subscription.get()::cancel);
+        emitter.onTimeout(subscription.get()::cancel);
+        emitter.onError(error -> subscription.get().cancel());
+        return ResponseEntity.ok(emitter);
+    }
+    
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                taskService.exportTasks(task -> {
+                    try {
+                        exportWriter.writeValue(generator, task);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
-        return taskService.getTaskById(id)
-            .map(ResponseEntity::ok)
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id,
+                                            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return taskService.getTaskById(id, includeArchived)
+            .map(task -> ResponseEntity.ok()
+                .eTag(EntityTags.of(task))
+                .lastModified(EntityTags.lastModified(task))
+                .body(task))
             .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable Status status) {
-        return ResponseEntity.ok(taskService.getTasksByStatus(status));
+    public ResponseEntity<List<?>> getTasksByStatus(@PathVariable Status status,
+                                                    @RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(defaultValue = "full") String view,
+                                                    @RequestParam(defaultValue = "false") boolean includeArchived) {
+        if (isSummaryView(view)) {
+            return summaryPage(taskService.getTaskSummariesByStatus(status, after, limit, includeArchived), limit);
+        }
+        return page(taskService.getTasksByStatus(status, after, limit, includeArchived), limit);
     }
     
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable Priority priority) {
-        return ResponseEntity.ok(taskService.getTasksByPriority(priority));
+    public ResponseEntity<List<?>> getTasksByPriority(@PathVariable Priority priority,
+                                                      @RequestParam(required = false) Long after,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(defaultValue = "full") String view) {
+        if (isSummaryView(view)) {
+            return summaryPage(taskService.getTaskSummariesByPriority(priority, after, limit), limit);
+        }
+        return page(taskService.getTasksByPriority(priority, after, limit), limit);
     }
     
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Task>> getTasksByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(taskService.getTasksByCategory(categoryId));
+    public ResponseEntity<List<?>> getTasksByCategory(@PathVariable Long categoryId,
+                                                      @RequestParam(required = false) Long after,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(defaultValue = "full") String view) {
+        if (isSummaryView(view)) {
+            return summaryPage(taskService.getTaskSummariesByCategory(categoryId, after, limit), limit);
+        }
+        return page(taskService.getTasksByCategory(categoryId, after, limit), limit);
     }
     
     @GetMapping("/overdue")
-    public ResponseEntity<List<Task>> getOverdueTasks() {
-        return ResponseEntity.ok(taskService.getOverdueTasks());
+    public ResponseEntity<List<?>> getOverdueTasks(@RequestParam(required = false) Long after,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(defaultValue = "full") String view) {
+        if (isSummaryView(view)) {
+            return summaryPage(taskService.getOverdueTaskSummaries(after, limit), limit);
+        }
+        return page(taskService.getOverdueTasks(after, limit), limit);
+    }
+    
+    @GetMapping("/due-soon")
+    public ResponseEntity<List<Task>> getTasksDueSoon(@RequestParam(defaultValue = "24") int hours,
+                                                      @RequestParam(required = false) Integer limit) {
+        List<Task> tasks = taskService.getTasksDueWithin(Duration.ofHours(hours), limit);
+        return ResponseEntity.ok().eTag(EntityTags.of(tasks)).body(tasks);
     }
     
     @PostMapping
@@ -71,10 +245,15 @@ public class TaskController {
     
     @PutMapping("/{id}")
     public ResponseEntity<?> updateTask(@PathVariable Long id, 
-                                           @Valid @RequestBody Task task) {
+                                           @Valid @RequestBody Task task,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestHeader(value = PREFER, required = false) String prefer) {
         try {
-            Task updated = taskService.updateTask(id, task);
-            return ResponseEntity.ok(updated);
+            Task updated = taskService.updateTask(id, task, EntityTags.expectedVersion(ifMatch, id));
+            if (isReturnMinimal(prefer)) {
+                return minimal(EntityTags.of(updated));
+            }
+            return ResponseEntity.ok().eTag(EntityTags.of(updated)).body(updated);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -87,15 +266,22 @@ public class TaskController {
     
     @PatchMapping("/{id}/status")
     public ResponseEntity<?> updateTaskStatus(@PathVariable Long id, 
-                                                 @RequestBody Status status) {
+                                                 @RequestBody Status status,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestHeader(value = PREFER, required = false) String prefer) {
         if (status == null) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Status is required");
             return ResponseEntity.badRequest().body(error);
         }
         try {
-            Task updated = taskService.updateTaskStatus(id, status);
-            return ResponseEntity.ok(updated);
+            TaskState updated = taskService.updateTaskStatus(id, status, EntityTags.expectedVersion(ifMatch, id));
+            if (isReturnMinimal(prefer)) {
+                return minimal(EntityTags.of(updated));
+            }
+            return taskService.getTaskById(id)
+                .<ResponseEntity<?>>map(task -> ResponseEntity.ok().eTag(EntityTags.of(task)).body(task))
+                .orElse(ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -115,31 +301,215 @@ public class TaskController {
         }
     }
     
+    // Moves a completed or cancelled task to the archive, where only includeArchived reads find it
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<?> archiveTask(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(taskService.archiveTask(id));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            if (e.getMessage().contains("not found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<?> restoreTask(@PathVariable Long id) {
+        try {
+            Task restored = taskService.restoreTask(id);
+            return ResponseEntity.ok().eTag(EntityTags.of(restored)).body(restored);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+    
+    /**
+     * Accepts a task for background creation and returns 202 with a tracking id. Answers 429 when
+     * the ingestion queue is full.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<?> createTaskAsync(@Valid @RequestBody Task task) {
+        try {
+            return ingestionQueue.submit(task)
+                .<ResponseEntity<?>>map(status -> ResponseEntity.accepted()
+                    .location(URI.create("/api/tasks/async/" + status.getTrackingId()))
+                    .body(status))
+                .orElseGet(() -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Ingestion queue is full, please retry");
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").body(error);
+                });
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<IngestionStatus> getIngestionStatus(@PathVariable String trackingId) {
+        return ingestionQueue.getStatus(trackingId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTasks(@RequestBody List<Task> tasks) {
+        try {
+            List<BatchItemResult> results = taskService.createTasks(tasks);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @PatchMapping("/batch/status")
+    public ResponseEntity<?> updateTaskStatuses(@RequestBody BatchStatusUpdate update) {
+        try {
+            List<BatchItemResult> results = taskService.updateTaskStatuses(update.getIds(), update.getStatus());
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteTasks(@RequestBody List<Long> ids) {
+        try {
+            List<BatchItemResult> results = taskService.deleteTasks(ids);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Created and completed counts and average cycle time per hour, day or week, from the rollup table
+    @GetMapping("/analytics")
+    public ResponseEntity<TaskAnalytics> getAnalytics(
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(analyticsService.getAnalytics(TaskAnalytics.Bucket.parse(bucket), from, to));
+    }
+    
     @GetMapping("/stats")
     public ResponseEntity<TaskStats> getTaskStats() {
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, taskService.getTaskCountByPriority(priority));
+        }
+        List<CategoryStats> byCategory = new ArrayList<>();
+        taskService.getTaskCountsByCategory().forEach((categoryId, counts) -> byCategory.add(new CategoryStats(
+            categoryId,
+            counts[Status.PENDING.ordinal()],
+            counts[Status.IN_PROGRESS.ordinal()],
+            counts[Status.COMPLETED.ordinal()],
+            counts[Status.CANCELLED.ordinal()]
+        )));
         TaskStats stats = new TaskStats(
             taskService.getTaskCountByStatus(Status.PENDING),
             taskService.getTaskCountByStatus(Status.IN_PROGRESS),
             taskService.getTaskCountByStatus(Status.COMPLETED),
-            taskService.getTaskCountByStatus(Status.CANCELLED)
+            taskService.getTaskCountByStatus(Status.CANCELLED),
+            byPriority,
+            byCategory
         );
         return ResponseEntity.ok(stats);
     }
     
+    // Prefer: return=minimal (RFC 7240) skips the response body; the ETag still carries the new version
+    static boolean isReturnMinimal(String prefer) {
+        return prefer != null && prefer.contains("return=minimal");
+    }
+    
+    static ResponseEntity<?> minimal(String etag) {
+        return ResponseEntity.noContent().eTag(etag).header("Preference-Applied", "return=minimal").build();
+    }
+    
+    // "summary" returns TaskSummary projections, "full" the complete tasks with their category
+    private static boolean isSummaryView(String view) {
+        return switch (view.toLowerCase(Locale.ROOT)) {
+            case "summary" -> true;
+            case "full" -> false;
+            default -> throw new IllegalArgumentException("view must be 'summary' or 'full'");
+        };
+    }
+    
+    private ResponseEntity<List<?>> page(List<Task> tasks, Integer limit) {
+        return page(tasks, limit, Task::getId, EntityTags.of(tasks));
+    }
+    
+    private ResponseEntity<List<?>> summaryPage(List<TaskSummary> summaries, Integer limit) {
+        return page(summaries, limit, TaskSummary::id, EntityTags.ofSummaries(summaries));
+    }
+    
+    // A full page means there may be more rows; hand back the last id as the cursor for the next request.
+    // The ETag lets Spring answer If-None-Match with a 304 before the page is serialized.
+    private <T> ResponseEntity<List<?>> page(List<T> items, Integer limit, Function<T, Long> id, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (!items.isEmpty() && items.size() >= taskService.resolvePageSize(limit)) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(id.apply(items.get(items.size() - 1))));
+        }
+        return response.body(items);
+    }
+    
     // Inner class for stats response
     public static class TaskStats {
         private final long pending;
         private final long inProgress;
         private final long completed;
         private final long cancelled;
+        private final Map<Priority, Long> byPriority;
+        private final List<CategoryStats> byCategory;
+        
+        public TaskStats(long pending, long inProgress, long completed, long cancelled,
+                         Map<Priority, Long> byPriority, List<CategoryStats> byCategory) {
+            this.pending = pending;
+            this.inProgress = inProgress;
+            this.completed = completed;
+            this.cancelled = cancelled;
+            this.byPriority = byPriority;
+            this.byCategory = byCategory;
+        }
+        
+        public long getPending() { return pending; }
+        public long getInProgress() { return inProgress; }
+        public long getCompleted() { return completed; }
+        public long getCancelled() { return cancelled; }
+        public long getTotal() { return pending + inProgress + completed + cancelled; }
+        public Map<Priority, Long> getByPriority() { return byPriority; }
+        public List<CategoryStats> getByCategory() { return byCategory; }
+    }
+    
+    // Status breakdown for a single category; categoryId is null for uncategorized tasks
+    public static class CategoryStats {
+        private final Long categoryId;
+        private final long pending;
+        private final long inProgress;
+        private final long completed;
+        private final long cancelled;
         
-        public TaskStats(long pending, long inProgress, long completed, long cancelled) {
+        public CategoryStats(Long categoryId, long pending, long inProgress, long completed, long cancelled) {
+            this.categoryId = categoryId;
             this.pending = pending;
             this.inProgress = inProgress;
             this.completed = completed;
             this.cancelled = cancelled;
         }
         
+        @JsonSerialize(using = ToStringSerializer.class)
+        public Long getCategoryId() { return categoryId; }
         public long getPending() { return pending; }
         public long getInProgress() { return inProgress; }
         public long getCompleted() { return completed; }
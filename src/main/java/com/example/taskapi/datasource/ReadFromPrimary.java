@@ -0,0 +1,19 @@
+package com.example.taskapi.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps the annotated method's reads on the primary even inside a read-only transaction. For
+ * readers that must not miss a committed write, such as rebuilds of in-memory state that later
+ * writes are applied to, where rows still in flight to a lagging replica would be lost for good.
+ * Has no effect unless read replicas are enabled.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,25 @@
+package com.example.taskapi.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Pins methods annotated with {@link ReadFromPrimary} to the primary for their whole invocation.
+ */
+@Aspect
+public class ReadFromPrimaryAspect {
+    
+    @Around("@annotation(com.example.taskapi.datasource.ReadFromPrimary) || " +
+            "@within(com.example.taskapi.datasource.ReadFromPrimary)")
+    public Object onPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean pinned = ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (pinned) {
+                ReplicaRoutingDataSource.unpin();
+            }
+        }
+    }
+}
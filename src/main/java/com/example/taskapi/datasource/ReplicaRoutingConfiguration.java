@@ -0,0 +1,99 @@
+package com.example.taskapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas: read-only transactions are served by a pool per replica, everything else by the
+ * primary configured under {@code spring.datasource}. Flyway and other work outside a read-only
+ * transaction always sees the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task-api.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, DataSourceProperties properties, MeterRegistry registry,
+            @Value("${task-api.replicas.urls}") List<String> urls,
+            @Value("${task-api.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${task-api.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${task-api.replicas.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+            @Value("${task-api.replicas.connection-timeout:PT2S}") Duration connectionTimeout,
+            @Value("${task-api.replicas.lag-query:}") String lagQuery,
+            @Value("${task-api.replicas.max-lag:PT1S}") Duration maxLag) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            // Kept short so a replica that went away costs a read little before it falls back to the primary
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.add(replica);
+        }
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery,
+            maxLag, connectionTimeout);
+        for (ReplicaRoutingDataSource.Replica replica : dataSource.getReplicas()) {
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                .tag("replica", replica.getName())
+                .register(registry);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.getLagMillis() / 1000.0)
+                .tag("replica", replica.getName())
+                .baseUnit("seconds")
+                .register(registry);
+        }
+        FunctionCounter.builder("datasource.replica.fallbacks", dataSource, ReplicaRoutingDataSource::fallbackCount)
+            .description("Read-only connections taken from the primary because no replica was usable")
+            .register(registry);
+        return dataSource;
+    }
+    
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+    
+    // Hibernate otherwise keeps a session's first connection until the session closes, and with
+    // open-in-view that would tie every transaction of a request to wherever the first one went
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+    
+    @Bean
+    public ReadFromPrimaryAspect readFromPrimaryAspect() {
+        return new ReadFromPrimaryAspect();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.taskapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction's read-only flag is only published after the transaction manager has asked for
+ * a connection, so the choice has to wait until the first statement.
+ *
+ * <p>Replicas are taken in turn, skipping those that failed their last health check or were
+ * lagging by more than the allowed amount. With none usable, reads go to the primary. Once a web
+ * request has written, its later reads stay on the primary so that it sees its own writes.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    private static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".wrote";
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkTimeout;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong fallbacks = new AtomicLong();
+    
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, String lagQuery,
+                                    Duration maxLag, Duration checkTimeout) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkTimeout = checkTimeout;
+    }
+    
+    // False when the thread is already pinned, in which case the caller must leave unpinning to the outer pin
+    static boolean pinToPrimary() {
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return false;
+        }
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        return true;
+    }
+    
+    static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                markRequestWrote();
+            }
+            return primary.getConnection();
+        }
+        if (PINNED_TO_PRIMARY.get() != null || requestWrote()) {
+            return primary.getConnection();
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                // Hikari reports a pool that could not be started as a runtime exception
+                replica.markDown(e.getMessage());
+            }
+        }
+        fallbacks.incrementAndGet();
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+    
+    /**
+     * Probes every replica, marking it down when it cannot be reached or, with a lag query
+     * configured, when it is further behind the primary than the allowed lag. A replica that
+     * passes again is put back into rotation.
+     */
+    @Scheduled(fixedDelayString = "${task-api.replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid((int) Math.max(1, checkTimeout.toSeconds()))) {
+                    replica.markDown("connection failed validation");
+                    continue;
+                }
+                if (lagQuery != null && !lagQuery.isBlank()) {
+                    Duration lag = lag(connection);
+                    replica.lagMillis = lag.toMillis();
+                    if (lag.compareTo(maxLag) > 0) {
+                        replica.markDown("lagging by " + lag);
+                        continue;
+                    }
+                }
+                replica.markUp();
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+    
+    private Duration lag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, checkTimeout.toSeconds()));
+            try (ResultSet result = statement.executeQuery(lagQuery)) {
+                double seconds = result.next() ? result.getDouble(1) : 0;
+                return Duration.ofMillis((long) (seconds * 1000));
+            }
+        }
+    }
+    
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    public long healthyReplicaCount() {
+        return replicas.stream().filter(Replica::isHealthy).count();
+    }
+    
+    // Read-only connections that went to the primary because no replica was usable
+    public long fallbackCount() {
+        return fallbacks.get();
+    }
+    
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+    
+    private static void markRequestWrote() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+    
+    private static boolean requestWrote() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+    
+    public static final class Replica {
+        
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+        
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+        
+        public String getName() {
+            return dataSource.getPoolName();
+        }
+        
+        public boolean isHealthy() {
+            return healthy;
+        }
+        
+        public long getLagMillis() {
+            return lagMillis;
+        }
+        
+        private void markDown(String reason) {
+            if (healthy) {
+                log.warn("Read replica {} taken out of rotation: {}", getName(), reason);
+            }
+            healthy = false;
+        }
+        
+        private void markUp() {
+            if (!healthy) {
+                log.info("Read replica {} back in rotation", getName());
+            }
+            healthy = true;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.taskapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one item in a batch request. {@code index} is the item's position in the request so
+ * clients can match failures back to their input.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    
+    public enum Outcome {
+        CREATED, UPDATED, DELETED, FAILED
+    }
+    
+    private int index;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+    private Outcome outcome;
+    private String error;
+    
+    public static BatchItemResult success(int index, Long id, Outcome outcome) {
+        return new BatchItemResult(index, id, outcome, null);
+    }
+    
+    public static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Outcome.FAILED, error);
+    }
+}
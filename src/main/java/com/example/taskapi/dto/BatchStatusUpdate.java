@@ -0,0 +1,17 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task.Status;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body for {@code PATCH /api/tasks/batch/status}: move every listed task to one status.
+ */
+@Data
+@NoArgsConstructor
+public class BatchStatusUpdate {
+    private List<Long> ids;
+    private Status status;
+}
@@ -0,0 +1,13 @@
+package com.example.taskapi.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * A category with the number of its tasks that are open (pending or in progress), completed, and
+ * open past their due date, as returned by {@code GET /api/categories?withCounts=true}.
+ */
+public record CategoryWithCounts(@JsonSerialize(using = ToStringSerializer.class) Long id,
+                                 String name, String description,
+                                 long openTasks, long completedTasks, long overdueTasks) {
+}
@@ -0,0 +1,34 @@
+package com.example.taskapi.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in the task change feed: the last seen {@code updatedAt} plus the task id that broke
+ * the tie. Serialized as {@code <ISO timestamp>_<id>}; a bare ISO timestamp is accepted too.
+ */
+public record ChangeToken(LocalDateTime timestamp, long id) {
+    
+    public static final ChangeToken BEGINNING = new ChangeToken(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+    
+    public static ChangeToken parse(String value) {
+        if (value == null || value.isBlank()) {
+            return BEGINNING;
+        }
+        try {
+            int separator = value.indexOf('_');
+            if (separator < 0) {
+                return new ChangeToken(LocalDateTime.parse(value), 0L);
+            }
+            return new ChangeToken(LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid change token: " + value);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return timestamp + "_" + id;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskapi.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The response to a request sent with an {@code Idempotency-Key}, replayed to retries of it.
+ * {@code fingerprint} identifies the request body the response belongs to.
+ */
+public record IdempotentResponse(String fingerprint, int status, Map<String, List<String>> headers, byte[] body) {
+}
@@ -0,0 +1,39 @@
+package com.example.taskapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Progress of a task submitted through {@code POST /api/tasks/async}. {@code taskId} is set once
+ * the task has been written; {@code error} explains a failure.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestionStatus {
+    
+    public enum State {
+        QUEUED, CREATED, FAILED
+    }
+    
+    private String trackingId;
+    private State state;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long taskId;
+    private String error;
+    
+    public static IngestionStatus queued(String trackingId) {
+        return new IngestionStatus(trackingId, State.QUEUED, null, null);
+    }
+    
+    public static IngestionStatus created(String trackingId, Long taskId) {
+        return new IngestionStatus(trackingId, State.CREATED, taskId, null);
+    }
+    
+    public static IngestionStatus failed(String trackingId, String error) {
+        return new IngestionStatus(trackingId, State.FAILED, null, error);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task.Priority;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Response of {@code GET /api/tasks/analytics}: tasks created and completed per time bucket and
+ * the average time from creation to completion, broken down by priority and category.
+ * {@code refreshedThrough} is how far the underlying rollups are up to date.
+ */
+public record TaskAnalytics(Bucket bucket, LocalDateTime from, LocalDateTime to,
+                            LocalDateTime refreshedThrough, List<Point> series) {
+    
+    public enum Bucket {
+        HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS), WEEK(ChronoUnit.WEEKS);
+        
+        private final ChronoUnit unit;
+        
+        Bucket(ChronoUnit unit) {
+            this.unit = unit;
+        }
+        
+        public static Bucket parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("bucket must be one of hour, day or week");
+            }
+        }
+        
+        // Weeks start on Monday, as with DATE_TRUNC('week', ...) on H2 and PostgreSQL
+        public LocalDateTime truncate(LocalDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            };
+        }
+        
+        // The first bucket boundary at or after the given time
+        public LocalDateTime ceil(LocalDateTime time) {
+            LocalDateTime start = truncate(time);
+            return start.equals(time) ? start : start.plus(1, unit);
+        }
+        
+        public long count(LocalDateTime from, LocalDateTime to) {
+            return unit.between(from, to);
+        }
+    }
+    
+    /**
+     * Completed tasks are counted in the bucket they were completed in. The average cycle time
+     * is null when nothing was completed.
+     */
+    public record Point(LocalDateTime start, Priority priority,
+                        @JsonSerialize(using = ToStringSerializer.class) Long categoryId, long created,
+                        long completed, Long averageCycleTimeSeconds) {
+    }
+}
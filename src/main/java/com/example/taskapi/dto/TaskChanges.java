@@ -0,0 +1,24 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Response of {@code GET /api/tasks/changes}: tasks created or updated and ids of tasks deleted
+ * since the supplied token. Pass {@code nextToken} as {@code since} on the next call; when
+ * {@code hasMore} is true, call again straight away.
+ */
+@Data
+@AllArgsConstructor
+public class TaskChanges {
+    private List<Task> changed;
+    @JsonSerialize(contentUsing = ToStringSerializer.class)
+    private List<Long> deleted;
+    private String nextToken;
+    private boolean hasMore;
+}
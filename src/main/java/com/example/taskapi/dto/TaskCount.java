@@ -0,0 +1,20 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One row of the grouped task count query: how many of a tenant's tasks share a status, priority
+ * and category.
+ */
+@Data
+@AllArgsConstructor
+public class TaskCount {
+    private String tenantId;
+    private Status status;
+    private Priority priority;
+    private Long categoryId;
+    private long count;
+}
@@ -0,0 +1,17 @@
+package com.example.taskapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id and due date of an open task, as loaded by the overdue tracker.
+ */
+@Data
+@AllArgsConstructor
+public class TaskDueDate {
+    private String tenantId;
+    private Long id;
+    private LocalDateTime dueDate;
+}
@@ -0,0 +1,72 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed task mutation as streamed by {@code GET /api/tasks/events}. Carries the task's
+ * listed fields after the change, plus its previous status and category so subscribers that keep
+ * counts, or filter on either, can tell when a task leaves their view. Status changes leave
+ * {@code title} and {@code dueDate} null; deletions and archivals describe the task as it was.
+ * The tenant is only used to route the event to the tenant's subscribers.
+ */
+public record TaskEvent(@JsonIgnore String tenantId, Type type,
+                        @JsonSerialize(using = ToStringSerializer.class) Long taskId,
+                        Long version, String title, Status status, Priority priority, LocalDateTime dueDate,
+                        @JsonSerialize(using = ToStringSerializer.class) Long categoryId,
+                        Status previousStatus,
+                        @JsonSerialize(using = ToStringSerializer.class) Long previousCategoryId,
+                        LocalDateTime occurredAt) {
+    
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED, ARCHIVED, RESTORED
+    }
+    
+    public static TaskEvent created(Task task) {
+        return of(Type.CREATED, task, null, null);
+    }
+    
+    public static TaskEvent updated(Task task, Status previousStatus, Long previousCategoryId) {
+        return of(Type.UPDATED, task, previousStatus, previousCategoryId);
+    }
+    
+    public static TaskEvent deleted(Task task) {
+        return of(Type.DELETED, task, task.getStatus(), categoryId(task));
+    }
+    
+    public static TaskEvent archived(Task task) {
+        return of(Type.ARCHIVED, task, task.getStatus(), categoryId(task));
+    }
+    
+    public static TaskEvent restored(Task task) {
+        return of(Type.RESTORED, task, null, null);
+    }
+    
+    public static TaskEvent statusChanged(String tenantId, Long taskId, Long version, Status status, Priority priority,
+                                          Long categoryId, Status previousStatus) {
+        return new TaskEvent(tenantId, Type.STATUS_CHANGED, taskId, version, null, status, priority, null, categoryId,
+            previousStatus, categoryId, LocalDateTime.now());
+    }
+    
+    public boolean concerns(String tenant, Long category, Status filterStatus) {
+        return tenant.equals(tenantId)
+            && (category == null || category.equals(categoryId) || category.equals(previousCategoryId))
+            && (filterStatus == null || filterStatus == status || filterStatus == previousStatus);
+    }
+    
+    private static TaskEvent of(Type type, Task task, Status previousStatus, Long previousCategoryId) {
+        return new TaskEvent(task.getTenantId(), type, task.getId(), task.getVersion(), task.getTitle(), task.getStatus(),
+            task.getPriority(), task.getDueDate(), categoryId(task), previousStatus, previousCategoryId,
+            LocalDateTime.now());
+    }
+    
+    private static Long categoryId(Task task) {
+        return task.getCategory() != null ? task.getCategory().getId() : null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task.Priority;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a task that the analytics rollups are computed from.
+ */
+public record TaskRollupSource(String tenantId, Priority priority, Long categoryId, LocalDateTime createdAt, LocalDateTime completedAt) {
+}
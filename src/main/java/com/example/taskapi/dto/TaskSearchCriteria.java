@@ -0,0 +1,55 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Query parameters accepted by {@code GET /api/tasks/search}. Every filter is optional; the ones
+ * that are present are combined with AND.
+ */
+@Data
+@NoArgsConstructor
+public class TaskSearchCriteria {
+    
+    private static final List<String> SORTABLE_FIELDS =
+        List.of("id", "title", "priority", "status", "dueDate", "createdAt", "updatedAt");
+    
+    private Status status;
+    
+    private Priority priority;
+    
+    private Long categoryId;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueAfter;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueBefore;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdAfter;
+    
+    private String title;
+    
+    private String sort = "id";
+    
+    private Sort.Direction direction = Sort.Direction.ASC;
+    
+    private Integer limit;
+    
+    public Sort toSort() {
+        if (!SORTABLE_FIELDS.contains(sort)) {
+            throw new IllegalArgumentException("Cannot sort by '" + sort + "'. Allowed: " + SORTABLE_FIELDS);
+        }
+        Sort order = Sort.by(direction, sort);
+        // Break ties on id so results are stable between calls
+        return "id".equals(sort) ? order : order.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a task that a status change reads before updating: its version, the fields the
+ * stats counters and overdue tracker key on, and the category version for the ETag.
+ */
+public record TaskState(String tenantId, Long id, Long version, Status status, Priority priority, LocalDateTime dueDate,
+                        Long categoryId, Long categoryVersion) {
+    
+    public TaskState withStatus(Status newStatus) {
+        return new TaskState(tenantId, id, version + 1, newStatus, priority, dueDate, categoryId, categoryVersion);
+    }
+}
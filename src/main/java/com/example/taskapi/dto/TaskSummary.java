@@ -0,0 +1,18 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight list view of a task, selected directly with a JPQL constructor expression. Leaves
+ * out the description and timestamps other than {@code updatedAt}, which is kept for ETags and sync.
+ */
+public record TaskSummary(@JsonSerialize(using = ToStringSerializer.class) Long id,
+                          String title, Status status, Priority priority, LocalDateTime dueDate,
+                          @JsonSerialize(using = ToStringSerializer.class) Long categoryId,
+                          String categoryName, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,17 @@
+package com.example.taskapi.dto;
+
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+
+/**
+ * The searchable text of a task plus the attributes text search can filter on, as loaded by the
+ * text index.
+ */
+public record TaskText(String tenantId, Long id, String title, String description, Status status, Priority priority, Long categoryId) {
+    
+    public static TaskText of(Task task) {
+        return new TaskText(task.getTenantId(), task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(),
+            task.getCategory() != null ? task.getCategory().getId() : null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.taskapi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creation and completion time of a changed or deleted task: the hours whose rollups it affects.
+ */
+public record TaskTimestamps(LocalDateTime createdAt, LocalDateTime completedAt) {
+}
@@ -0,0 +1,87 @@
+package com.example.taskapi.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes {@link LocalDateTime} values character for character as the standard serializer does
+ * with {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME}: seconds always, and the
+ * fraction only when non-zero, without trailing zeros. The digits go straight into a small char
+ * array instead of through the formatter, which allocates a print context and a builder per value.
+ *
+ * <p>Anything else falls back to the standard serializer: years outside 0000-9999, timestamps
+ * when {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} is enabled, and properties with
+ * their own {@link JsonFormat}.
+ */
+public final class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+    
+    public static final IsoLocalDateTimeSerializer INSTANCE = new IsoLocalDateTimeSerializer();
+    
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_LENGTH = 29;
+    
+    private IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+    
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999 || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            buffer[19] = '.';
+            writeDigits(buffer, 20, nano, 9);
+            length = MAX_LENGTH;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+        generator.writeString(buffer, 0, length);
+    }
+    
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        if (format != null && (format.hasPattern() || format.hasShape() || format.hasLocale() || format.hasLenient())) {
+            return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+        }
+        return this;
+    }
+    
+    // Writes value as exactly width decimal digits, zero-padded on the left
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.taskapi.json;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialization settings shared by every mapper Boot builds, plus Smile as a binary alternative
+ * to JSON for clients that send {@code Accept: application/x-jackson-smile}.
+ */
+@Configuration
+public class JsonConfiguration {
+    
+    // Reads and writes properties through generated lambdas instead of reflective calls
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+    
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer isoLocalDateTimeSerializer() {
+        return builder -> builder.serializerByType(LocalDateTime.class, IsoLocalDateTimeSerializer.INSTANCE);
+    }
+    
+    // Replaces the Smile converter Spring MVC would otherwise register with a default mapper,
+    // so Smile responses carry exactly the fields and formats JSON ones do
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
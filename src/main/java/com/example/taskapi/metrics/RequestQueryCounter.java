@@ -0,0 +1,57 @@
+package com.example.taskapi.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the SQL statements prepared and entities loaded by the current request thread.
+ * Registered with Hibernate as both the statement inspector and the session factory interceptor;
+ * {@link com.example.taskapi.web.QueryCountFilter} opens a scope per request and records the
+ * totals, which makes N+1 regressions show up as a jump in statements per request.
+ */
+public class RequestQueryCounter implements StatementInspector, Interceptor {
+    
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+    
+    public static Counts start() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+    
+    public static void stop() {
+        CURRENT.remove();
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+    
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+        return false;
+    }
+    
+    public static final class Counts {
+        private long statements;
+        private long entityLoads;
+        
+        public long getStatements() {
+            return statements;
+        }
+        
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+    }
+}
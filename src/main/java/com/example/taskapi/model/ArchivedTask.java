@@ -0,0 +1,91 @@
+package com.example.taskapi.model;
+
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed or cancelled task moved out of the tasks table by the archiver. Rows are copied
+ * between the two tables with SQL and only ever read through this entity; every column of the
+ * task is kept, so a restore puts back exactly what was archived.
+ */
+@Entity
+@Table(name = "archived_tasks", indexes = {
+    @Index(name = "idx_archived_tasks_status", columnList = "tenant_id, status, id"),
+    @Index(name = "idx_archived_tasks_category", columnList = "category_id"),
+    @Index(name = "idx_archived_tasks_archived_at", columnList = "archived_at"),
+    @Index(name = "idx_archived_tasks_created_at", columnList = "created_at"),
+    @Index(name = "idx_archived_tasks_completed_at", columnList = "completed_at")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedTask {
+    
+    @Id
+    private Long id;
+    
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(length = 2000)
+    private String description;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Priority priority;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
+    
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // The task's version when it was archived; restoring increments it
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // A detached task as the API returns it, marked as archived
+    public Task toTask() {
+        Task task = new Task();
+        task.setId(id);
+        task.setTenantId(tenantId);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setPriority(priority);
+        task.setStatus(status);
+        task.setCategory(category);
+        task.setDueDate(dueDate);
+        task.setCompletedAt(completedAt);
+        task.setCreatedAt(createdAt);
+        task.setUpdatedAt(updatedAt);
+        task.setVersion(version);
+        task.setArchived(true);
+        return task;
+    }
+}
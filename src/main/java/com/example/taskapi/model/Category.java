@@ -1,28 +1,47 @@
 package com.example.taskapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_categories_tenant_name", columnNames = {"tenant_id", "name"})
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    @JsonIgnore
+    private String tenantId;
+    
+    // Unique within a tenant
     @NotBlank(message = "Category name is required")
-    @Column(nullable = false, unique = true)
+    @Size(max = 255, message = "Category name must be at most 255 characters")
+    @Column(nullable = false)
     private String name;
     
+    @Size(max = 500, message = "Category description must be at most 500 characters")
     @Column(length = 500)
     private String description;
     
@@ -32,6 +51,13 @@ public class Category {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic locking: a concurrent update fails instead of silently overwriting this one.
+    // The column default lets the column be added to existing tables.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
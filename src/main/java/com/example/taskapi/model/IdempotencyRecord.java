@@ -0,0 +1,44 @@
+package com.example.taskapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request sent with an {@code Idempotency-Key} and, once it has finished, its response, so that
+ * any instance can replay it. {@code status} is null while the request is running. Only written
+ * when idempotency keys are persisted.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+    
+    // SHA-256 of the tenant, method, path and key
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+    
+    // SHA-256 of the request body
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    private Integer status;
+    
+    // Response headers as a JSON object of name to values
+    @Column(length = 4000)
+    private String headers;
+    
+    private byte[] body;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -1,16 +1,33 @@
 package com.example.taskapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_tenant_id", columnList = "tenant_id, id"),
+    @Index(name = "idx_tasks_status_priority", columnList = "tenant_id, status, priority"),
+    @Index(name = "idx_tasks_category_status", columnList = "category_id, status"),
+    @Index(name = "idx_tasks_due_date_status", columnList = "tenant_id, due_date, status"),
+    @Index(name = "idx_tasks_tenant_updated_at_id", columnList = "tenant_id, updated_at, id"),
+    @Index(name = "idx_tasks_updated_at_id", columnList = "updated_at, id"),
+    @Index(name = "idx_tasks_created_at", columnList = "created_at"),
+    @Index(name = "idx_tasks_completed_at", columnList = "completed_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,17 +38,32 @@ public class Task {
     }
     
     public enum Status {
-        PENDING, IN_PROGRESS, COMPLETED, CANCELLED
+        PENDING, IN_PROGRESS, COMPLETED, CANCELLED;
+        
+        // Open tasks are the ones that can still become overdue
+        public boolean isOpen() {
+            return this == PENDING || this == IN_PROGRESS;
+        }
     }
     
+    // Generated in memory, so inserts stay batchable without a shared sequence; ids grow with creation time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     
+    // Set from the session's tenant on insert; every query of a tenant's session is filtered by it
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    @JsonIgnore
+    private String tenantId;
+    
     @NotBlank(message = "Task title is required")
+    @Size(max = 255, message = "Task title must be at most 255 characters")
     @Column(nullable = false)
     private String title;
     
+    @Size(max = 2000, message = "Task description must be at most 2000 characters")
     @Column(length = 2000)
     private String description;
     
@@ -45,7 +77,8 @@ public class Task {
     @NotNull(message = "Status is required")
     private Status status = Status.PENDING;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy so summary and count queries never join categories; full-task reads fetch it explicitly
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
     
@@ -61,6 +94,19 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic locking: a concurrent update fails instead of silently overwriting this one.
+    // The column default lets the column be added to existing tables.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    // Set on tasks read from the archive (see ArchivedTask); only serialized when true
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean archived;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
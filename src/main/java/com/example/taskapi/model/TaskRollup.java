@@ -0,0 +1,68 @@
+package com.example.taskapi.model;
+
+import com.example.taskapi.model.Task.Priority;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Task throughput for one hour, priority and category, kept up to date by
+ * {@link com.example.taskapi.service.TaskAnalyticsService} so analytics never scan the tasks table.
+ * Tasks are counted as created in the hour of {@code createdAt} and as completed in the hour of
+ * {@code completedAt}; the cycle time sum belongs to the completion hour.
+ */
+@Entity
+@Table(name = "task_rollups", indexes = {
+    @Index(name = "idx_task_rollups_bucket_start", columnList = "bucket_start"),
+    @Index(name = "idx_task_rollups_tenant_bucket_start", columnList = "tenant_id, bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_rollups_seq")
+    @SequenceGenerator(name = "task_rollups_seq", sequenceName = "task_rollups_seq", allocationSize = 50)
+    private Long id;
+    
+    // A plain column rather than a tenant id: rollups of all tenants are refreshed together and
+    // queries name their tenant explicitly
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Priority priority;
+    
+    // A plain column rather than a relation: rollups are only ever read as aggregates
+    @Column(name = "category_id")
+    private Long categoryId;
+    
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+    
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+    
+    // Sum of completedAt - createdAt over the tasks completed in this hour
+    @Column(name = "cycle_time_seconds", nullable = false)
+    private long cycleTimeSeconds;
+    
+    public TaskRollup(String tenantId, LocalDateTime bucketStart, Priority priority, Long categoryId,
+                      long createdCount, long completedCount, long cycleTimeSeconds) {
+        this.tenantId = tenantId;
+        this.bucketStart = bucketStart;
+        this.priority = priority;
+        this.categoryId = categoryId;
+        this.createdCount = createdCount;
+        this.completedCount = completedCount;
+        this.cycleTimeSeconds = cycleTimeSeconds;
+    }
+}
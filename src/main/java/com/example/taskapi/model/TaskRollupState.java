@@ -0,0 +1,28 @@
+package com.example.taskapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-row watermark for the {@link TaskRollup} table: every task write up to
+ * {@code refreshedThrough} is reflected in the rollups.
+ */
+@Entity
+@Table(name = "task_rollup_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRollupState {
+    
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "refreshed_through", nullable = false)
+    private LocalDateTime refreshedThrough;
+}
@@ -0,0 +1,49 @@
+package com.example.taskapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind when a task is deleted, so delta sync clients can learn about the deletion.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+    @Index(name = "idx_task_tombstones_deleted_at", columnList = "deleted_at"),
+    @Index(name = "idx_task_tombstones_tenant_deleted_at", columnList = "tenant_id, deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_tombstones_seq")
+    @SequenceGenerator(name = "task_tombstones_seq", sequenceName = "task_tombstones_seq", allocationSize = 50)
+    private Long id;
+    
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+    
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Kept so the analytics rollups can retract the deleted task from the hours it was counted in
+    @Column(name = "task_created_at")
+    private LocalDateTime taskCreatedAt;
+    
+    @Column(name = "task_completed_at")
+    private LocalDateTime taskCompletedAt;
+    
+    public static TaskTombstone of(Task task, LocalDateTime deletedAt) {
+        return new TaskTombstone(null, task.getTenantId(), task.getId(), deletedAt, task.getCreatedAt(), task.getCompletedAt());
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.taskapi.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The worker id {@link SnowflakeIdGenerator} puts into ids. Either fixed by configuration or
+ * leased from the {@code id_worker_leases} table: an instance takes the lowest id that no live
+ * instance holds, renews the lease while it runs and gives it back on shutdown, so autoscaled
+ * instances never share one. A lease not renewed within its duration, because its instance died,
+ * can be taken over by another instance.
+ *
+ * <p>An instance that cannot renew stops handing out ids a quarter of the duration before its
+ * lease runs out, so that its ids never overlap with those of an instance that takes the id over,
+ * even with clocks that differ by less than that. Renewals run on a thread of their own, so that
+ * they are never held up behind the long scheduled jobs of the shared scheduling pool.
+ */
+public class WorkerIdLease implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(WorkerIdLease.class);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration duration;
+    private final String owner;
+    private volatile int workerId = -1;
+    private volatile long validUntilMillis;
+    private ScheduledExecutorService renewals;
+    
+    private WorkerIdLease(JdbcTemplate jdbcTemplate, Duration duration, int workerId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.duration = duration;
+        this.owner = owner();
+        if (workerId >= 0) {
+            this.workerId = workerId;
+            this.validUntilMillis = Long.MAX_VALUE;
+        }
+    }
+    
+    public static WorkerIdLease fixed(long workerId) {
+        if (workerId < 0 || workerId > SnowflakeIdGenerator.MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + SnowflakeIdGenerator.MAX_WORKER_ID
+                + ", got " + workerId);
+        }
+        return new WorkerIdLease(null, null, (int) workerId);
+    }
+    
+    public static WorkerIdLease leased(JdbcTemplate jdbcTemplate, Duration duration) {
+        return new WorkerIdLease(jdbcTemplate, duration, -1);
+    }
+    
+    /**
+     * The worker id, leased on first use. Fails once a lease could not be renewed in time, rather
+     * than hand out ids another instance may be generating too.
+     */
+    public int workerId() {
+        if (workerId < 0) {
+            acquire();
+        }
+        if (System.currentTimeMillis() >= validUntilMillis) {
+            throw new IllegalStateException("The lease on worker id " + workerId + " could not be renewed");
+        }
+        return workerId;
+    }
+    
+    /**
+     * Extends the lease, or leases a new id if another instance took this one over. Runs every
+     * quarter of the lease duration once an id has been leased.
+     */
+    public synchronized void renew() {
+        if (jdbcTemplate == null || workerId < 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            int renewed = jdbcTemplate.update("UPDATE id_worker_leases SET expires_at = ? WHERE worker_id = ? AND owner = ?",
+                timestamp(now + duration.toMillis()), workerId, owner);
+            if (renewed == 1) {
+                validUntilMillis = now + safeMillis();
+                return;
+            }
+            log.error("The lease on worker id {} was taken over by another instance, leasing a new one", workerId);
+            workerId = -1;
+            acquire();
+        } catch (DataAccessException e) {
+            log.warn("Could not renew the lease on worker id {}", workerId, e);
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (renewals != null) {
+            renewals.shutdownNow();
+        }
+        if (jdbcTemplate == null || workerId < 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM id_worker_leases WHERE worker_id = ? AND owner = ?", workerId, owner);
+        } catch (DataAccessException e) {
+            log.warn("Could not release the lease on worker id {}", workerId, e);
+        }
+    }
+    
+    private synchronized void acquire() {
+        if (workerId >= 0) {
+            return;
+        }
+        while (true) {
+            long now = System.currentTimeMillis();
+            Set<Integer> held = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT worker_id FROM id_worker_leases WHERE expires_at >= ?", Integer.class, timestamp(now)));
+            int candidate = 0;
+            while (held.contains(candidate)) {
+                candidate++;
+            }
+            if (candidate > SnowflakeIdGenerator.MAX_WORKER_ID) {
+                throw new IllegalStateException("All " + (SnowflakeIdGenerator.MAX_WORKER_ID + 1) + " worker ids are leased");
+            }
+            if (claim(candidate, now)) {
+                validUntilMillis = now + safeMillis();
+                workerId = candidate;
+                log.info("Leased worker id {} for generated ids", candidate);
+                scheduleRenewals();
+                return;
+            }
+            // Another instance got there first; look again
+        }
+    }
+    
+    private void scheduleRenewals() {
+        if (renewals != null) {
+            return;
+        }
+        renewals = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-id-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = duration.toMillis() / 4;
+        // An exception escaping a run would cancel every later one
+        renewals.scheduleWithFixedDelay(() -> {
+            try {
+                renew();
+            } catch (RuntimeException e) {
+                log.error("Could not renew the lease on worker id {}", workerId, e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    private boolean claim(int candidate, long now) {
+        Timestamp expiresAt = timestamp(now + duration.toMillis());
+        // An expired lease is taken over in place, a free id by inserting it
+        if (jdbcTemplate.update("UPDATE id_worker_leases SET owner = ?, expires_at = ? WHERE worker_id = ? AND expires_at < ?",
+                owner, expiresAt, candidate, timestamp(now)) == 1) {
+            return true;
+        }
+        List<Integer> existing = jdbcTemplate.queryForList(
+            "SELECT worker_id FROM id_worker_leases WHERE worker_id = ?", Integer.class, candidate);
+        if (!existing.isEmpty()) {
+            return false;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO id_worker_leases (worker_id, owner, expires_at) VALUES (?, ?, ?)",
+                candidate, owner, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+    
+    private long safeMillis() {
+        return duration.toMillis() - duration.toMillis() / 4;
+    }
+    
+    private static Timestamp timestamp(long millis) {
+        return Timestamp.from(Instant.ofEpochMilli(millis));
+    }
+    
+    private static String owner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return (host.length() > 200 ? host.substring(0, 200) : host) + "/" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.taskapi.repository;
+
+import com.example.taskapi.dto.TaskRollupSource;
+import com.example.taskapi.dto.TaskSummary;
+import com.example.taskapi.dto.TaskTimestamps;
+import com.example.taskapi.model.ArchivedTask;
+import com.example.taskapi.model.Task.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    
+    // A query rather than a lookup by key, which Hibernate does not restrict to the session's tenant
+    @Override
+    @Query("SELECT a FROM ArchivedTask a LEFT JOIN FETCH a.category WHERE a.id = :id")
+    Optional<ArchivedTask> findById(@Param("id") Long id);
+    
+    // Row lock so that a restore cannot race another restore of the same task
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ArchivedTask a WHERE a.id = :id")
+    Optional<ArchivedTask> findLockedById(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = "category")
+    List<ArchivedTask> findByStatusAndIdGreaterThanOrderByIdAsc(Status status, Long afterId, Limit limit);
+    
+    @Query("SELECT new com.example.taskapi.dto.TaskSummary(a.id, a.title, a.status, a.priority, a.dueDate, " +
+           "c.id, c.name, a.updatedAt) FROM ArchivedTask a LEFT JOIN a.category c " +
+           "WHERE a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<TaskSummary> findSummariesByStatus(@Param("status") Status status, @Param("afterId") Long afterId, Limit limit);
+    
+    boolean existsByCategoryId(Long categoryId);
+    
+    long countByCategoryId(Long categoryId);
+    
+    // Moves are native: rows keep their ids, tenants and timestamps, and never pass through the persistence context.
+    // Callers have already resolved the ids within the tenant.
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO archived_tasks (id, tenant_id, title, description, priority, status, " +
+                                       "category_id, due_date, completed_at, created_at, updated_at, version, archived_at) " +
+                                       "SELECT id, tenant_id, title, description, priority, status, category_id, due_date, " +
+                                       "completed_at, created_at, updated_at, version, :archivedAt FROM tasks WHERE id IN (:ids)")
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    // Restored tasks count as updated, so caches keyed on the version and delta sync clients see them again
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO tasks (id, tenant_id, title, description, priority, status, " +
+                                       "category_id, due_date, completed_at, created_at, updated_at, version) " +
+                                       "SELECT id, tenant_id, title, description, priority, status, category_id, due_date, " +
+                                       "completed_at, created_at, :now, version + 1 FROM archived_tasks WHERE id IN (:ids)")
+    int copyToTasks(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Analytics rollups count archived tasks too; moves keep the timestamps, so the hours they count in stay the same
+    @Query("SELECT new com.example.taskapi.dto.TaskTimestamps(a.createdAt, a.completedAt) FROM ArchivedTask a " +
+           "WHERE a.archivedAt > :since AND a.archivedAt <= :until")
+    List<TaskTimestamps> findTimestampsArchivedBetween(@Param("since") LocalDateTime since,
+                                                       @Param("until") LocalDateTime until);
+    
+    String ROLLUP_SOURCE = "new com.example.taskapi.dto.TaskRollupSource(a.tenantId, a.priority, " +
+                           "a.category.id, a.createdAt, a.completedAt)";
+    
+    @Query("SELECT " + ROLLUP_SOURCE + " FROM ArchivedTask a WHERE a.createdAt >= :from AND a.createdAt < :to")
+    List<TaskRollupSource> findRollupSourcesCreatedBetween(@Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+    
+    @Query("SELECT " + ROLLUP_SOURCE + " FROM ArchivedTask a WHERE a.completedAt >= :from AND a.completedAt < :to")
+    List<TaskRollupSource> findRollupSourcesCompletedBetween(@Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT " + ROLLUP_SOURCE + " FROM ArchivedTask a")
+    Stream<TaskRollupSource> streamRollupSources();
+}
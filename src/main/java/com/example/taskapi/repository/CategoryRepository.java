@@ -1,13 +1,33 @@
 package com.example.taskapi.repository;
 
+import com.example.taskapi.dto.CategoryWithCounts;
 import com.example.taskapi.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    
+    // A query rather than a lookup by key, which Hibernate does not restrict to the session's tenant
+    @Override
+    @Query("SELECT c FROM Category c WHERE c.id = :id")
+    Optional<Category> findById(@Param("id") Long id);
+    
     Optional<Category> findByName(String name);
     boolean existsByName(String name);
+    
+    // One grouped pass over the tasks; categories without tasks come back with zero counts
+    @Query("SELECT new com.example.taskapi.dto.CategoryWithCounts(c.id, c.name, c.description, " +
+           "COALESCE(SUM(CASE WHEN t.status IN ('PENDING', 'IN_PROGRESS') THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN t.status IN ('PENDING', 'IN_PROGRESS') AND t.dueDate < :now THEN 1 ELSE 0 END), 0)) " +
+           "FROM Category c LEFT JOIN Task t ON t.category.id = c.id " +
+           "GROUP BY c.id, c.name, c.description ORDER BY c.id")
+    List<CategoryWithCounts> findAllWithTaskCounts(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,50 @@
+package com.example.taskapi.repository;
+
+import com.example.taskapi.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Writes commit on their own, so a claim is visible to other instances as soon as it is made.
+    // A plain insert rather than save(), which would merge into a row another instance has just inserted
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "INSERT INTO idempotency_keys (key_hash, fingerprint, created_at, expires_at) " +
+                                       "VALUES (:keyHash, :fingerprint, :now, :expiresAt)")
+    int insertClaim(@Param("keyHash") String keyHash, @Param("fingerprint") String fingerprint,
+                    @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    // Takes over a key whose request was claimed before staleBefore and never finished, or whose response has expired
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.fingerprint = :fingerprint, r.status = null, r.headers = null, r.body = null, " +
+           "r.createdAt = :now, r.expiresAt = :expiresAt WHERE r.keyHash = :keyHash " +
+           "AND ((r.status IS NULL AND r.createdAt < :staleBefore) OR r.expiresAt < :now)")
+    int takeOverClaim(@Param("keyHash") String keyHash, @Param("fingerprint") String fingerprint,
+                      @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt,
+                      @Param("staleBefore") LocalDateTime staleBefore);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.headers = :headers, r.body = :body WHERE r.keyHash = :keyHash")
+    int complete(@Param("keyHash") String keyHash, @Param("status") int status, @Param("headers") String headers,
+                 @Param("body") byte[] body);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.keyHash = :keyHash AND r.status IS NULL")
+    int deleteClaim(@Param("keyHash") String keyHash);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
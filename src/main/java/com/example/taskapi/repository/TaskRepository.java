@@ -1,18 +1,66 @@
 package com.example.taskapi.repository;
 
+import com.example.taskapi.dto.TaskCount;
+import com.example.taskapi.dto.TaskDueDate;
+import com.example.taskapi.dto.TaskRollupSource;
+import com.example.taskapi.dto.TaskState;
+import com.example.taskapi.dto.TaskSummary;
+import com.example.taskapi.dto.TaskText;
+import com.example.taskapi.dto.TaskTimestamps;
 import com.example.taskapi.model.Task;
 import com.example.taskapi.model.Task.Priority;
 import com.example.taskapi.model.Task.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+    
+    // The category is lazy; queries whose results are returned as full tasks fetch it in the same statement.
+    // A query rather than a lookup by key, which Hibernate does not restrict to the session's tenant.
+    @Override
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category WHERE t.id = :id")
+    Optional<Task> findById(@Param("id") Long id);
+    
+    @Query("SELECT new com.example.taskapi.dto.TaskState(t.tenantId, t.id, t.version, t.status, t.priority, t.dueDate, " +
+           "c.id, c.version) FROM Task t LEFT JOIN t.category c WHERE t.id = :id")
+    Optional<TaskState> findStateById(@Param("id") Long id);
+    
+    // Archiver: old tasks in a terminal status, oldest first. Locked so a concurrent update waits for the move
+    // and then finds the task gone, instead of changing a row that has already been copied to the archive.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.status IN ('COMPLETED', 'CANCELLED') AND t.updatedAt < :cutoff " +
+           "ORDER BY t.updatedAt, t.id")
+    List<Task> findArchivable(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findLockedById(@Param("id") Long id);
+    
+    // Conditional on the version so a concurrent writer is detected; returns the number of rows updated
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :now, " +
+           "t.completedAt = COALESCE(t.completedAt, :completedAt), t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.version = :version")
+    int updateStatus(@Param("id") Long id, @Param("version") Long version, @Param("status") Status status,
+                     @Param("now") LocalDateTime now, @Param("completedAt") LocalDateTime completedAt);
     
     List<Task> findByStatus(Status status);
     
@@ -20,13 +68,138 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     List<Task> findByCategoryId(Long categoryId);
     
+    boolean existsByCategoryId(Long categoryId);
+    
+    long countByCategoryId(Long categoryId);
+    
     List<Task> findByStatusAndPriority(Status status, Priority priority);
     
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :now AND t.status != 'COMPLETED'")
+    @Query("SELECT t FROM Task t WHERE t.dueDate < :now AND t.status IN ('PENDING', 'IN_PROGRESS')")
     List<Task> findOverdueTasks(@Param("now") LocalDateTime now);
     
     @Query("SELECT t FROM Task t WHERE t.category.id = :categoryId")
     List<Task> findByCategory(@Param("categoryId") Long categoryId);
     
     long countByStatus(Status status);
+    
+    @Query("SELECT new com.example.taskapi.dto.TaskCount(t.tenantId, t.status, t.priority, t.category.id, " +
+           "COUNT(t)) FROM Task t GROUP BY t.tenantId, t.status, t.priority, t.category.id")
+    List<TaskCount> countGroupedByStatusPriorityAndCategory();
+    
+    // Keyset pagination: callers pass the last id they saw and get the next page in id order
+    @EntityGraph(attributePaths = "category")
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    @EntityGraph(attributePaths = "category")
+    List<Task> findByStatusAndIdGreaterThanOrderByIdAsc(Status status, Long afterId, Limit limit);
+    
+    @EntityGraph(attributePaths = "category")
+    List<Task> findByPriorityAndIdGreaterThanOrderByIdAsc(Priority priority, Long afterId, Limit limit);
+    
+    @EntityGraph(attributePaths = "category")
+    List<Task> findByCategoryIdAndIdGreaterThanOrderByIdAsc(Long categoryId, Long afterId, Limit limit);
+    
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category WHERE t.dueDate < :now " +
+           "AND t.status IN ('PENDING', 'IN_PROGRESS') AND t.id > :afterId ORDER BY t.id")
+    List<Task> findOverdueTasks(@Param("now") LocalDateTime now, @Param("afterId") Long afterId, Limit limit);
+    
+    // Summary projections for the list endpoints: only the listed columns are selected and nothing is managed
+    String SUMMARY = "new com.example.taskapi.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.dueDate, " +
+                     "c.id, c.name, t.updatedAt)";
+    
+    @Query("SELECT " + SUMMARY + " FROM Task t LEFT JOIN t.category c WHERE t.id > :afterId ORDER BY t.id")
+    List<TaskSummary> findSummaries(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT " + SUMMARY + " FROM Task t LEFT JOIN t.category c " +
+           "WHERE t.status = :status AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummary> findSummariesByStatus(@Param("status") Status status, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT " + SUMMARY + " FROM Task t LEFT JOIN t.category c " +
+           "WHERE t.priority = :priority AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummary> findSummariesByPriority(@Param("priority") Priority priority, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT " + SUMMARY + " FROM Task t LEFT JOIN t.category c " +
+           "WHERE c.id = :categoryId AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummary> findSummariesByCategory(@Param("categoryId") Long categoryId, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT " + SUMMARY + " FROM Task t LEFT JOIN t.category c WHERE t.dueDate < :now " +
+           "AND t.status IN ('PENDING', 'IN_PROGRESS') AND t.id > :afterId ORDER BY t.id")
+    List<TaskSummary> findOverdueSummaries(@Param("now") LocalDateTime now, @Param("afterId") Long afterId, Limit limit);
+    
+    // Look up the ids TaskTextIndex matched, keeping only those that still have the requested status, priority and category
+    String MATCHING_IDS = "t.id IN :ids AND (:status IS NULL OR t.status = :status) " +
+                          "AND (:priority IS NULL OR t.priority = :priority) AND (:categoryId IS NULL OR t.category.id = :categoryId)";
+    
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category WHERE " + MATCHING_IDS)
+    List<Task> findMatchingByIdIn(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+                                  @Param("priority") Priority priority, @Param("categoryId") Long categoryId);
+    
+    @Query("SELECT " + SUMMARY + " FROM Task t LEFT JOIN t.category c WHERE " + MATCHING_IDS)
+    List<TaskSummary> findMatchingSummariesByIdIn(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+                                                  @Param("priority") Priority priority, @Param("categoryId") Long categoryId);
+    
+    // Look up the ids OverdueTracker picked, keeping only those the table still has open and overdue or due
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category WHERE t.id IN :ids AND t.dueDate < :now " +
+           "AND t.status IN ('PENDING', 'IN_PROGRESS')")
+    List<Task> findOverdueByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT " + SUMMARY + " FROM Task t LEFT JOIN t.category c WHERE t.id IN :ids AND t.dueDate < :now " +
+           "AND t.status IN ('PENDING', 'IN_PROGRESS')")
+    List<TaskSummary> findOverdueSummariesByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category WHERE t.id IN :ids AND t.dueDate >= :from " +
+           "AND t.dueDate < :to AND t.status IN ('PENDING', 'IN_PROGRESS')")
+    List<Task> findOpenTasksDueBetweenByIdIn(@Param("ids") Collection<Long> ids, @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+    
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category WHERE t.dueDate >= :from AND t.dueDate < :to " +
+           "AND t.status IN ('PENDING', 'IN_PROGRESS') ORDER BY t.dueDate, t.id")
+    List<Task> findOpenTasksDueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Limit limit);
+    
+    // Change feed: keyset over (updatedAt, id), bounded above so in-flight transactions are not skipped
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category " +
+           "WHERE (t.updatedAt > :since OR (t.updatedAt = :since AND t.id > :afterId)) " +
+           "AND t.updatedAt <= :until ORDER BY t.updatedAt, t.id")
+    List<Task> findChangedBetween(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                  @Param("until") LocalDateTime until, Limit limit);
+    
+    // Must be consumed inside a transaction; rows are fetched from the cursor in chunks
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.category ORDER BY t.id")
+    Stream<Task> streamAllByOrderByIdAsc();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.taskapi.dto.TaskDueDate(t.tenantId, t.id, t.dueDate) FROM Task t " +
+           "WHERE t.dueDate IS NOT NULL AND t.status IN ('PENDING', 'IN_PROGRESS')")
+    Stream<TaskDueDate> streamOpenTaskDueDates();
+    
+    // Ordered by id so the text index can append instead of inserting
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.taskapi.dto.TaskText(t.tenantId, t.id, t.title, t.description, t.status, " +
+           "t.priority, c.id) FROM Task t LEFT JOIN t.category c ORDER BY t.id")
+    Stream<TaskText> streamTaskTexts();
+    
+    // Analytics rollups: which hours a batch of writes touched, and the tasks counted in a range of hours
+    @Query("SELECT new com.example.taskapi.dto.TaskTimestamps(t.createdAt, t.completedAt) FROM Task t " +
+           "WHERE t.updatedAt > :since AND t.updatedAt <= :until")
+    List<TaskTimestamps> findTimestampsUpdatedBetween(@Param("since") LocalDateTime since,
+                                                      @Param("until") LocalDateTime until);
+    
+    String ROLLUP_SOURCE = "new com.example.taskapi.dto.TaskRollupSource(t.tenantId, t.priority, " +
+                           "t.category.id, t.createdAt, t.completedAt)";
+    
+    @Query("SELECT " + ROLLUP_SOURCE + " FROM Task t WHERE t.createdAt >= :from AND t.createdAt < :to")
+    List<TaskRollupSource> findRollupSourcesCreatedBetween(@Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+    
+    @Query("SELECT " + ROLLUP_SOURCE + " FROM Task t WHERE t.completedAt >= :from AND t.completedAt < :to")
+    List<TaskRollupSource> findRollupSourcesCompletedBetween(@Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT " + ROLLUP_SOURCE + " FROM Task t")
+    Stream<TaskRollupSource> streamRollupSources();
 }
@@ -0,0 +1,39 @@
+package com.example.taskapi.repository;
+
+import com.example.taskapi.model.TaskRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskRollupRepository extends JpaRepository<TaskRollup, Long> {
+    
+    @Modifying
+    @Query("DELETE FROM TaskRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Series rows are one tenant's (bucket start, priority, category id, created, completed, cycle time seconds).
+    // Native so the hourly rows are regrouped with DATE_TRUNC, which H2 and PostgreSQL both provide.
+    String SERIES_COLUMNS = "r.priority, r.category_id, SUM(r.created_count), SUM(r.completed_count), " +
+                            "SUM(r.cycle_time_seconds) FROM task_rollups r " +
+                            "WHERE r.tenant_id = :tenant AND r.bucket_start >= :from AND r.bucket_start < :to GROUP BY ";
+    String SERIES_ORDER = ", r.priority, r.category_id ORDER BY 1, 2, 3";
+    
+    @Query(nativeQuery = true, value = "SELECT r.bucket_start, " + SERIES_COLUMNS + "r.bucket_start" + SERIES_ORDER)
+    List<Object[]> sumByHour(@Param("tenant") String tenant, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query(nativeQuery = true, value = "SELECT DATE_TRUNC('day', r.bucket_start), " + SERIES_COLUMNS +
+                                       "DATE_TRUNC('day', r.bucket_start)" + SERIES_ORDER)
+    List<Object[]> sumByDay(@Param("tenant") String tenant, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // DATE_TRUNC('week', ...) starts weeks on Sunday on H2 and Monday on PostgreSQL; ISODOW agrees on both
+    String WEEK_START = "DATE_TRUNC('day', r.bucket_start) - (EXTRACT(ISODOW FROM r.bucket_start) - 1) * INTERVAL '1' DAY";
+    
+    @Query(nativeQuery = true, value = "SELECT " + WEEK_START + ", " + SERIES_COLUMNS + WEEK_START + SERIES_ORDER)
+    List<Object[]> sumByWeek(@Param("tenant") String tenant, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,17 @@
+package com.example.taskapi.repository;
+
+import com.example.taskapi.model.TaskRollupState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskRollupStateRepository extends JpaRepository<TaskRollupState, Integer> {
+    
+    // Row lock so that only one instance refreshes the rollups at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TaskRollupState> findLockedById(Integer id);
+}
@@ -0,0 +1,27 @@
+package com.example.taskapi.repository;
+
+import com.example.taskapi.dto.TaskTimestamps;
+import com.example.taskapi.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    
+    @Query("SELECT t.taskId FROM TaskTombstone t WHERE t.deletedAt > :from AND t.deletedAt <= :to ORDER BY t.deletedAt")
+    List<Long> findTaskIdsDeletedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT new com.example.taskapi.dto.TaskTimestamps(t.taskCreatedAt, t.taskCompletedAt) " +
+           "FROM TaskTombstone t WHERE t.deletedAt > :from AND t.deletedAt <= :to")
+    List<TaskTimestamps> findTimestampsDeletedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,50 +1,102 @@
 package com.example.taskapi.service;
 
+import com.example.taskapi.dto.CategoryWithCounts;
 import com.example.taskapi.model.Category;
+import com.example.taskapi.repository.ArchivedTaskRepository;
 import com.example.taskapi.repository.CategoryRepository;
 import com.example.taskapi.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "category.service", percentiles = {0.5, 0.95, 0.99})
 @Transactional
 public class CategoryService {
     
+    static final String CATEGORIES_CACHE = "categories";
+    public static final String CATEGORY_TASK_COUNTS_CACHE = "categoryTaskCounts";
+    
+    // Cache keys start with the tenant, so tenants never see each other's cached categories
+    private static final String TENANT = "T(com.example.taskapi.tenant.TenantContext).current()";
+    
     private final CategoryRepository categoryRepository;
     private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository, TaskRepository taskRepository) {
+    public CategoryService(CategoryRepository categoryRepository, TaskRepository taskRepository,
+                           ArchivedTaskRepository archivedTaskRepository) {
         this.categoryRepository = categoryRepository;
         this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
     }
     
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
     
+    /**
+     * Every category with its open, completed and overdue task counts, not counting archived tasks.
+     * Cached until a task or category is written, or for the cache's expiry at most, since tasks
+     * become overdue without a write.
+     */
+    @Cacheable(cacheNames = CATEGORY_TASK_COUNTS_CACHE, key = TENANT)
+    @Transactional(readOnly = true)
+    public List<CategoryWithCounts> getAllCategoriesWithCounts() {
+        return categoryRepository.findAllWithTaskCounts(LocalDateTime.now());
+    }
+    
+    // Called by TaskService after each committed task write; needs no transaction of its own
+    @CacheEvict(cacheNames = CATEGORY_TASK_COUNTS_CACHE, key = TENANT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictTaskCounts() {
+    }
+    
+    // For writes made across all tenants, where there is no single tenant's entry to evict
+    @CacheEvict(cacheNames = CATEGORY_TASK_COUNTS_CACHE, allEntries = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictAllTaskCounts() {
+    }
+    
+    @Cacheable(cacheNames = CATEGORIES_CACHE, key = "{" + TENANT + ", #id}", unless = "#result == null")
+    @Transactional(readOnly = true)
     public Optional<Category> getCategoryById(Long id) {
         return categoryRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Category> getCategoryByName(String name) {
         return categoryRepository.findByName(name);
     }
     
+    @CacheEvict(cacheNames = CATEGORY_TASK_COUNTS_CACHE, key = TENANT)
     public Category createCategory(Category category) {
         if (categoryRepository.existsByName(category.getName())) {
             throw new IllegalArgumentException("Category with name '" + category.getName() + "' already exists");
         }
+        category.setVersion(null);
         return categoryRepository.save(category);
     }
     
-    public Category updateCategory(Long id, Category categoryDetails) {
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CATEGORIES_CACHE, key = "{" + TENANT + ", #id}"),
+        @CacheEvict(cacheNames = CATEGORY_TASK_COUNTS_CACHE, key = TENANT)
+    })
+    public Category updateCategory(Long id, Category categoryDetails, Long expectedVersion) {
         Category category = categoryRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + id));
+        PreconditionFailedException.checkVersion("Category", id, expectedVersion, category.getVersion());
         
         // Only update non-null, non-empty fields
         if (categoryDetails.getName() != null && !categoryDetails.getName().trim().isEmpty()) {
@@ -62,13 +114,18 @@ public class CategoryService {
         return categoryRepository.save(category);
     }
     
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CATEGORIES_CACHE, key = "{" + TENANT + ", #id}"),
+        @CacheEvict(cacheNames = CATEGORY_TASK_COUNTS_CACHE, key = TENANT)
+    })
     public void deleteCategory(Long id) {
-        Category category = categoryRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + id));
+        if (!categoryRepository.existsById(id)) {
+            throw new IllegalArgumentException("Category not found with id: " + id);
+        }
         
-        // Check if category has associated tasks
-        long taskCount = taskRepository.findByCategoryId(id).size();
-        if (taskCount > 0) {
+        // Check if category has associated tasks, archived ones included; the count is only needed for the message
+        if (taskRepository.existsByCategoryId(id) || archivedTaskRepository.existsByCategoryId(id)) {
+            long taskCount = taskRepository.countByCategoryId(id) + archivedTaskRepository.countByCategoryId(id);
             throw new IllegalArgumentException("Cannot delete category with id: " + id + 
                 ". It has " + taskCount + " associated task(s). Remove or reassign tasks first.");
         }
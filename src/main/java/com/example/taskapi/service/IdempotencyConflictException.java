@@ -0,0 +1,12 @@
+package com.example.taskapi.service;
+
+/**
+ * Thrown when a request with an {@code Idempotency-Key} is still running elsewhere after a retry
+ * of it has waited as long as it may. Answered with 409 Conflict.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
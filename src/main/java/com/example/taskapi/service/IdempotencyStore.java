@@ -0,0 +1,213 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.datasource.ReadFromPrimary;
+import com.example.taskapi.dto.IdempotentResponse;
+import com.example.taskapi.model.IdempotencyRecord;
+import com.example.taskapi.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers the responses to requests sent with an {@code Idempotency-Key}, so that a retry gets
+ * the original response instead of running again. Responses are kept in memory, bounded by their
+ * total size, for the time to live. With {@code task-api.idempotency.persistent} they are also
+ * written to the {@code idempotency_keys} table, so every instance sharing the database can
+ * replay them.
+ *
+ * <p>A key is claimed before its request runs, and requests arriving with it meanwhile wait for
+ * the response: on this instance through the claim's future, on others by polling the table.
+ * Only successful responses are kept. Anything else, a rejection such as {@code 429} or
+ * {@code 409}, a validation error or a server error, means the request did not take effect, so
+ * its claim is released and the next request with the key runs, including those waiting at the
+ * time.
+ */
+@Service
+@ReadFromPrimary
+public class IdempotencyStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final TypeReference<Map<String, List<String>>> HEADERS = new TypeReference<>() {
+    };
+    // Rough cost of an entry besides its body
+    private static final int ENTRY_OVERHEAD = 512;
+    
+    /**
+     * A key as claimed by one request. The owner runs the request and then completes or releases
+     * the claim; everyone else waits for {@code response}.
+     */
+    public record Claim(String key, CompletableFuture<IdempotentResponse> response, boolean owner) {
+    }
+    
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final Duration lockTimeout;
+    private final Duration pollInterval;
+    private final Cache<String, CompletableFuture<IdempotentResponse>> responses;
+    
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                            @Value("${task-api.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${task-api.idempotency.max-memory:64MB}") DataSize maxMemory,
+                            @Value("${task-api.idempotency.persistent:false}") boolean persistent,
+                            @Value("${task-api.idempotency.lock-timeout:PT1M}") Duration lockTimeout,
+                            @Value("${task-api.idempotency.poll-interval:PT0.1S}") Duration pollInterval) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.persistent = persistent;
+        this.lockTimeout = lockTimeout;
+        this.pollInterval = pollInterval;
+        // Weighed when put, so a claim is put again once it has its response
+        this.responses = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumWeight(maxMemory.toBytes())
+            .<String, CompletableFuture<IdempotentResponse>>weigher((key, response) -> {
+                IdempotentResponse done = response.isDone() && !response.isCompletedExceptionally() ? response.join() : null;
+                return ENTRY_OVERHEAD + (done != null ? done.body().length : 0);
+            })
+            .build();
+    }
+    
+    /**
+     * Claims {@code key} for a request with the given body fingerprint. When another request holds
+     * it on a different instance, polls the table until that request's response is stored or
+     * {@code deadline} (a {@link System#nanoTime()} value) passes, after which the returned claim's
+     * response fails with {@link IdempotencyConflictException}.
+     */
+    public Claim claim(String key, String fingerprint, long deadline) {
+        CompletableFuture<IdempotentResponse> response = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> existing = responses.asMap().putIfAbsent(key, response);
+        if (existing != null) {
+            return new Claim(key, existing, false);
+        }
+        Claim claim = new Claim(key, response, true);
+        if (!persistent) {
+            return claim;
+        }
+        try {
+            return claimRecord(claim, fingerprint, deadline);
+        } catch (RuntimeException e) {
+            forget(claim, e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Keeps a successful response for retries and hands it to everyone waiting for the claim. Any
+     * other response releases the claim instead. The owner's request has already been served by
+     * then, so failing to store the response is only logged.
+     */
+    public void complete(Claim claim, IdempotentResponse response) {
+        if (!HttpStatus.valueOf(response.status()).is2xxSuccessful()) {
+            release(claim, new IllegalStateException("Answered with status " + response.status()));
+            return;
+        }
+        if (persistent) {
+            try {
+                repository.complete(claim.key(), response.status(),
+                    objectMapper.writeValueAsString(response.headers()), response.body());
+            } catch (JsonProcessingException | DataAccessException e) {
+                log.warn("Could not store the response for idempotency key {}", claim.key(), e);
+            }
+        }
+        remember(claim, response);
+    }
+    
+    // Gives the key up after the owner's request failed; requests waiting for it see the failure
+    public void release(Claim claim, Throwable failure) {
+        if (persistent) {
+            try {
+                repository.deleteClaim(claim.key());
+            } catch (DataAccessException e) {
+                log.warn("Could not release idempotency key {}", claim.key(), e);
+            }
+        }
+        forget(claim, failure);
+    }
+    
+    @Scheduled(fixedDelayString = "${task-api.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        if (persistent) {
+            repository.deleteExpired(LocalDateTime.now());
+        }
+    }
+    
+    private Claim claimRecord(Claim claim, String fingerprint, long deadline) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            // Looked up first, since retries mostly find a row and a failed insert is logged as an error
+            Optional<IdempotencyRecord> record = repository.findById(claim.key());
+            if (record.isEmpty()) {
+                try {
+                    repository.insertClaim(claim.key(), fingerprint, now, now.plus(ttl));
+                    return claim;
+                } catch (DataIntegrityViolationException e) {
+                    // Claimed by another instance in the meantime
+                    continue;
+                }
+            }
+            if (record.get().getStatus() != null && record.get().getExpiresAt().isAfter(now)) {
+                remember(claim, toResponse(record.get()));
+                return new Claim(claim.key(), claim.response(), false);
+            }
+            if (repository.takeOverClaim(claim.key(), fingerprint, now, now.plus(ttl), now.minus(lockTimeout)) == 1) {
+                return claim;
+            }
+            // The claim in the table belongs to another instance and stays
+            if (System.nanoTime() - deadline >= 0) {
+                forget(claim, new IdempotencyConflictException("A request with this Idempotency-Key is still in progress"));
+                return new Claim(claim.key(), claim.response(), false);
+            }
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                forget(claim, new IdempotencyConflictException("Interrupted while waiting for the Idempotency-Key"));
+                return new Claim(claim.key(), claim.response(), false);
+            }
+        }
+    }
+    
+    private void remember(Claim claim, IdempotentResponse response) {
+        claim.response().complete(response);
+        responses.asMap().replace(claim.key(), claim.response(), claim.response());
+    }
+    
+    private void forget(Claim claim, Throwable failure) {
+        responses.asMap().remove(claim.key(), claim.response());
+        claim.response().completeExceptionally(failure);
+    }
+    
+    private IdempotentResponse toResponse(IdempotencyRecord record) {
+        try {
+            Map<String, List<String>> headers = record.getHeaders() != null
+                ? objectMapper.readValue(record.getHeaders(), HEADERS) : Map.of();
+            return new IdempotentResponse(record.getFingerprint(), record.getStatus(), headers,
+                record.getBody() != null ? record.getBody() : new byte[0]);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable headers stored for idempotency key " + record.getKeyHash(), e);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.TaskText;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over task titles and descriptions. Each term maps to its postings: the
+ * ids of the tasks containing it, ascending in a {@code long[]}, with a one-byte weight per task
+ * (an occurrence in the title counts three times as much as one in the description). Status,
+ * priority and category of every task are kept in parallel arrays sorted by id, so hits can be
+ * filtered without going to the database.
+ *
+ * <p>Queries match tasks containing every term; the last term also matches as a prefix, so
+ * results follow the user while typing. Hits are ranked by a BM25-style score: rarer terms weigh
+ * more and repeated occurrences saturate.
+ *
+ * <p>Not thread-safe; {@link TaskTextIndex} guards it with a read-write lock.
+ */
+public final class InvertedIndex {
+    
+    public static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_WEIGHT = Byte.MAX_VALUE;
+    private static final float SATURATION = 1.2f;
+    private static final int DELETED = -1;
+    private static final long NO_CATEGORY = 0L;
+    
+    public record Hit(long id, float score) {
+    }
+    
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private long[] docIds = new long[1024];
+    private int[] docAttributes = new int[1024];
+    private long[] docCategories = new long[1024];
+    private int docCount;
+    private int deletedDocs;
+    
+    /**
+     * Indexes {@code after}, first dropping the terms of {@code before} that it no longer contains.
+     * {@code before} is null for a new task.
+     */
+    public void put(TaskText before, TaskText after) {
+        long id = after.id();
+        Map<String, Integer> weights = weights(after);
+        if (before != null) {
+            for (String term : weights(before).keySet()) {
+                if (!weights.containsKey(term)) {
+                    removePosting(term, id);
+                }
+            }
+        }
+        weights.forEach((term, weight) -> terms.computeIfAbsent(term, t -> new Postings()).put(id, weight));
+        putDocument(id, attributes(after.status(), after.priority()), after.categoryId());
+    }
+    
+    public void remove(TaskText before) {
+        long id = before.id();
+        for (String term : weights(before).keySet()) {
+            removePosting(term, id);
+        }
+        int slot = Arrays.binarySearch(docIds, 0, docCount, id);
+        if (slot >= 0 && docAttributes[slot] != DELETED) {
+            docAttributes[slot] = DELETED;
+            deletedDocs++;
+            if (deletedDocs > 1024 && deletedDocs > docCount / 4) {
+                compact();
+            }
+        }
+    }
+    
+    public void updateStatus(long id, Status status) {
+        int slot = Arrays.binarySearch(docIds, 0, docCount, id);
+        if (slot >= 0 && docAttributes[slot] != DELETED) {
+            docAttributes[slot] = attributes(status, priorityOf(docAttributes[slot]));
+        }
+    }
+    
+    public int size() {
+        return docCount - deletedDocs;
+    }
+    
+    /**
+     * Best {@code limit} tasks matching every term of {@code query} and the optional filters, highest score first.
+     */
+    public List<Hit> search(String query, Status status, Priority priority, Long categoryId, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain a word of at least " + MIN_TERM_LENGTH + " characters");
+        }
+        List<Scored> lists = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size() - 1; i++) {
+            Postings postings = terms.get(tokens.get(i));
+            if (postings == null) {
+                return List.of();
+            }
+            lists.add(score(postings));
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Scored matches = null;
+        for (Scored list : lists) {
+            matches = matches == null ? list : intersect(matches, list);
+            if (matches.size == 0) {
+                return List.of();
+            }
+        }
+        
+        // Each term the prefix expands to is intersected with the exact terms' matches separately and
+        // the lists go to the top-k pass as they are; merging them first would copy every posting
+        List<Scored> expansions = new ArrayList<>();
+        String prefix = tokens.get(tokens.size() - 1);
+        for (Postings postings : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            Scored expansion = matches == null ? score(postings) : intersect(matches, score(postings));
+            if (expansion.size > 0) {
+                expansions.add(expansion);
+            }
+            if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        if (expansions.isEmpty()) {
+            return List.of();
+        }
+        return top(expansions, status, priority, categoryId, limit);
+    }
+    
+    /**
+     * Lower-cased runs of letters and digits, between {@value #MIN_TERM_LENGTH} and
+     * {@value #MAX_TERM_LENGTH} characters long.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int length = i - start;
+                if (length >= MIN_TERM_LENGTH && length <= MAX_TERM_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+    
+    private static Map<String, Integer> weights(TaskText text) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize(text.title())) {
+            weights.merge(token, TITLE_WEIGHT, (a, b) -> Math.min(MAX_WEIGHT, a + b));
+        }
+        for (String token : tokenize(text.description())) {
+            weights.merge(token, 1, (a, b) -> Math.min(MAX_WEIGHT, a + b));
+        }
+        return weights;
+    }
+    
+    private void removePosting(String term, long id) {
+        Postings postings = terms.get(term);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            terms.remove(term);
+        }
+    }
+    
+    // Wraps the postings without copying; scores come from a per-weight table
+    private Scored score(Postings postings) {
+        // BM25 inverse document frequency: terms found in fewer tasks count for more
+        float idf = (float) Math.log(1 + (size() - postings.size + 0.5) / (postings.size + 0.5));
+        float[] byWeight = new float[MAX_WEIGHT + 1];
+        for (int weight = 1; weight <= MAX_WEIGHT; weight++) {
+            byWeight[weight] = idf * weight * (SATURATION + 1) / (weight + SATURATION);
+        }
+        return new Scored(postings.ids, postings.weights, byWeight, postings.size);
+    }
+    
+    // Walks the smaller list and gallops through the larger one from the last match
+    private static Scored intersect(Scored a, Scored b) {
+        Scored small = a.size <= b.size ? a : b;
+        Scored large = a.size <= b.size ? b : a;
+        Scored result = new Scored(small.size);
+        int from = 0;
+        int n = 0;
+        for (int i = 0; i < small.size && from < large.size; i++) {
+            int found = gallop(large.ids, from, large.size, small.ids[i]);
+            if (found >= 0) {
+                result.ids[n] = small.ids[i];
+                result.scores[n++] = small.score(i) + large.score(found);
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        result.size = n;
+        return result;
+    }
+    
+    // Like Arrays.binarySearch, but probes 1, 2, 4... entries past from first, so nearby keys are found quickly
+    private static int gallop(long[] ids, int from, int to, long key) {
+        int step = 1;
+        int low = from;
+        while (from + step < to && ids[from + step] < key) {
+            low = from + step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(ids, low, Math.min(from + step + 1, to), key);
+    }
+    
+    private List<Hit> top(List<Scored> lists, Status status, Priority priority, Long categoryId, int limit) {
+        // Min-heap of the best hits so far; ties go to the newer (higher id) task
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id);
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, ranking);
+        // A task under several prefix expansions keeps its best score, so remember who is in the heap
+        Map<Long, Hit> members = new HashMap<>();
+        // Once the heap is full, anything not beating its weakest hit is skipped before the more
+        // expensive attribute lookup
+        float floorScore = Float.NEGATIVE_INFINITY;
+        long floorId = Long.MIN_VALUE;
+        for (Scored list : lists) {
+            for (int i = list.size - 1; i >= 0; i--) {
+                float score = list.score(i);
+                if (score < floorScore) {
+                    continue;
+                }
+                long id = list.ids[i];
+                if (score == floorScore && id < floorId) {
+                    continue;
+                }
+                Hit member = members.get(id);
+                if (member != null) {
+                    if (score <= member.score()) {
+                        continue;
+                    }
+                    best.remove(member);
+                } else if (!matches(id, status, priority, categoryId)) {
+                    continue;
+                }
+                Hit hit = new Hit(id, score);
+                best.add(hit);
+                members.put(id, hit);
+                if (best.size() > limit) {
+                    members.remove(best.poll().id());
+                }
+                if (best.size() == limit) {
+                    floorScore = best.peek().score();
+                    floorId = best.peek().id();
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+    
+    // Also rejects postings left behind for a task that is no longer indexed
+    private boolean matches(long id, Status status, Priority priority, Long categoryId) {
+        int slot = Arrays.binarySearch(docIds, 0, docCount, id);
+        if (slot < 0 || docAttributes[slot] == DELETED) {
+            return false;
+        }
+        int attributes = docAttributes[slot];
+        return (status == null || statusOf(attributes) == status)
+            && (priority == null || priorityOf(attributes) == priority)
+            && (categoryId == null || docCategories[slot] == categoryId);
+    }
+    
+    private void putDocument(long id, int attributes, Long categoryId) {
+        int slot = docCount > 0 && docIds[docCount - 1] < id ? -(docCount + 1) : Arrays.binarySearch(docIds, 0, docCount, id);
+        if (slot >= 0) {
+            if (docAttributes[slot] == DELETED) {
+                deletedDocs--;
+            }
+        } else {
+            slot = -slot - 1;
+            if (docCount == docIds.length) {
+                int capacity = docIds.length + (docIds.length >> 1);
+                docIds = Arrays.copyOf(docIds, capacity);
+                docAttributes = Arrays.copyOf(docAttributes, capacity);
+                docCategories = Arrays.copyOf(docCategories, capacity);
+            }
+            System.arraycopy(docIds, slot, docIds, slot + 1, docCount - slot);
+            System.arraycopy(docAttributes, slot, docAttributes, slot + 1, docCount - slot);
+            System.arraycopy(docCategories, slot, docCategories, slot + 1, docCount - slot);
+            docIds[slot] = id;
+            docCount++;
+        }
+        docAttributes[slot] = attributes;
+        docCategories[slot] = categoryId != null ? categoryId : NO_CATEGORY;
+    }
+    
+    private void compact() {
+        int n = 0;
+        for (int i = 0; i < docCount; i++) {
+            if (docAttributes[i] != DELETED) {
+                docIds[n] = docIds[i];
+                docAttributes[n] = docAttributes[i];
+                docCategories[n++] = docCategories[i];
+            }
+        }
+        docCount = n;
+        deletedDocs = 0;
+    }
+    
+    private static int attributes(Status status, Priority priority) {
+        return (status != null ? status.ordinal() + 1 : 0) | (priority != null ? priority.ordinal() + 1 : 0) << 8;
+    }
+    
+    private static Status statusOf(int attributes) {
+        int ordinal = (attributes & 0xFF) - 1;
+        return ordinal >= 0 ? Status.values()[ordinal] : null;
+    }
+    
+    private static Priority priorityOf(int attributes) {
+        int ordinal = (attributes >> 8 & 0xFF) - 1;
+        return ordinal >= 0 ? Priority.values()[ordinal] : null;
+    }
+    
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private byte[] weights = new byte[2];
+        private int size;
+        
+        void put(long id, int weight) {
+            // New tasks have the highest ids, so most inserts append
+            int slot = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (slot >= 0) {
+                weights[slot] = (byte) weight;
+                return;
+            }
+            slot = -slot - 1;
+            if (size == ids.length) {
+                int capacity = ids.length + Math.max(2, ids.length >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            System.arraycopy(ids, slot, ids, slot + 1, size - slot);
+            System.arraycopy(weights, slot, weights, slot + 1, size - slot);
+            ids[slot] = id;
+            weights[slot] = (byte) weight;
+            size++;
+        }
+        
+        boolean remove(long id) {
+            int slot = Arrays.binarySearch(ids, 0, size, id);
+            if (slot < 0) {
+                return false;
+            }
+            System.arraycopy(ids, slot + 1, ids, slot, size - slot - 1);
+            System.arraycopy(weights, slot + 1, weights, slot, size - slot - 1);
+            size--;
+            return true;
+        }
+    }
+    
+    // Ids ascending with a score each: either computed (scores) or looked up by weight (weights, byWeight)
+    private static final class Scored {
+        private final long[] ids;
+        private final float[] scores;
+        private final byte[] weights;
+        private final float[] byWeight;
+        private int size;
+        
+        Scored(int capacity) {
+            this.ids = new long[capacity];
+            this.scores = new float[capacity];
+            this.weights = null;
+            this.byWeight = null;
+        }
+        
+        Scored(long[] ids, byte[] weights, float[] byWeight, int size) {
+            this.ids = ids;
+            this.scores = null;
+            this.weights = weights;
+            this.byWeight = byWeight;
+            this.size = size;
+        }
+        
+        float score(int i) {
+            return scores != null ? scores[i] : byWeight[weights[i]];
+        }
+    }
+}
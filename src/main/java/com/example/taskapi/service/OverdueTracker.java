@@ -0,0 +1,246 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.datasource.ReadFromPrimary;
+import com.example.taskapi.dto.TaskDueDate;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.repository.TaskRepository;
+import com.example.taskapi.tenant.AllTenants;
+import com.example.taskapi.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Time-ordered index of open tasks with a due date, so overdue and due-soon queries do not scan
+ * the tasks table. Tasks sit in a due-date ordered queue until their deadline passes, then move
+ * to an id-ordered overdue set that supports the same keyset pagination as the other list
+ * endpoints. There is one index per tenant and queries read the current {@link TenantContext}
+ * tenant's. {@link TaskService} keeps it in sync after each commit and a periodic rebuild from
+ * the database corrects anything written behind the service's back.
+ */
+@Component
+public class OverdueTracker {
+    
+    private final TaskRepository taskRepository;
+    private final Object lock = new Object();
+    
+    // Index per tenant; null until the first rebuild completes, callers falling back to the
+    // database until then
+    private volatile Map<String, Index> indexes;
+    // Changes applied while a rebuild is running, replayed onto the rebuilt index (guarded by lock)
+    private List<Change> journal;
+    
+    @Autowired
+    public OverdueTracker(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+    
+    public boolean isReady() {
+        return indexes != null;
+    }
+    
+    /**
+     * Records the task's current due date and status, tracking it only while it is open.
+     */
+    public void track(Task task) {
+        track(task.getTenantId(), task.getId(), task.getStatus(), task.getDueDate());
+    }
+    
+    public void track(String tenant, Long id, Status status, LocalDateTime dueDate) {
+        boolean tracked = dueDate != null && status != null && status.isOpen();
+        apply(new Change(tenant, id, tracked ? toMillis(dueDate) : null));
+    }
+    
+    public void untrack(String tenant, Long id) {
+        apply(new Change(tenant, id, null));
+    }
+    
+    /**
+     * Ids of overdue tasks greater than {@code afterId}, in id order.
+     */
+    public List<Long> overdueIds(long afterId, int limit) {
+        Index current = advanceTo(currentTenantIndex(), nowMillis());
+        List<Long> ids = new ArrayList<>(Math.min(limit, 256));
+        for (Long id : current.overdue.tailSet(afterId, false)) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+    
+    /**
+     * Open tasks due between now and now + {@code window} that come after {@code after}, soonest
+     * first; {@code after} is the last entry of the previous page, or null for the first page.
+     */
+    public List<Entry> dueWithin(Duration window, Entry after, int limit) {
+        long now = nowMillis();
+        Index current = advanceTo(currentTenantIndex(), now);
+        Entry from = new Entry(now, Long.MIN_VALUE);
+        boolean fromInclusive = after == null || after.compareTo(from) < 0;
+        NavigableSet<Entry> due = current.upcoming.subSet(
+            fromInclusive ? from : after, fromInclusive, new Entry(now + window.toMillis(), Long.MAX_VALUE), true);
+        List<Entry> entries = new ArrayList<>(Math.min(limit, 256));
+        for (Entry entry : due) {
+            if (entries.size() >= limit) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+    
+    /**
+     * Moves tasks whose deadline has passed from the upcoming queue to the overdue set.
+     */
+    @Scheduled(fixedDelayString = "${task-api.overdue.advance-interval:PT30S}")
+    public void advance() {
+        Map<String, Index> current = indexes;
+        if (current != null) {
+            long now = nowMillis();
+            current.values().forEach(index -> advanceTo(index, now));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${task-api.overdue.rebuild-interval:PT10M}")
+    @AllTenants
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public void rebuild() {
+        synchronized (lock) {
+            journal = new ArrayList<>();
+        }
+        Map<String, Index> fresh = new ConcurrentHashMap<>();
+        long now = nowMillis();
+        try (Stream<TaskDueDate> rows = taskRepository.streamOpenTaskDueDates()) {
+            rows.forEach(row ->
+                apply(fresh, new Change(row.getTenantId(), row.getId(), toMillis(row.getDueDate())), now));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                journal = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            long replayedAt = nowMillis();
+            journal.forEach(change -> apply(fresh, change, replayedAt));
+            journal = null;
+            indexes = fresh;
+        }
+    }
+    
+    private void apply(Change change) {
+        synchronized (lock) {
+            Map<String, Index> current = indexes;
+            if (current != null) {
+                apply(current, change, nowMillis());
+            }
+            if (journal != null) {
+                journal.add(change);
+            }
+        }
+    }
+    
+    private static void apply(Map<String, Index> indexes, Change change, long now) {
+        if (change.dueMillis() != null) {
+            indexes.computeIfAbsent(change.tenant(), tenant -> new Index()).apply(change, now);
+        } else {
+            Index index = indexes.get(change.tenant());
+            if (index != null) {
+                index.apply(change, now);
+            }
+        }
+    }
+    
+    // A tenant without open tasks has no index yet and gets an empty one that is not kept
+    private Index currentTenantIndex() {
+        Map<String, Index> current = indexes;
+        if (current == null) {
+            throw new IllegalStateException("Overdue tracker has not been built yet");
+        }
+        Index index = current.get(TenantContext.current());
+        return index != null ? index : new Index();
+    }
+    
+    private Index advanceTo(Index index, long now) {
+        if (index.hasExpired(now)) {
+            synchronized (lock) {
+                index.advance(now);
+            }
+        }
+        return index;
+    }
+    
+    private static long nowMillis() {
+        return toMillis(LocalDateTime.now());
+    }
+    
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    // A due date of null means the task should no longer be tracked
+    private record Change(String tenant, Long id, Long dueMillis) {
+    }
+    
+    public record Entry(long dueMillis, long id) implements Comparable<Entry> {
+        static final Entry FIRST = new Entry(Long.MIN_VALUE, Long.MIN_VALUE);
+        
+        @Override
+        public int compareTo(Entry other) {
+            int byDue = Long.compare(dueMillis, other.dueMillis);
+            return byDue != 0 ? byDue : Long.compare(id, other.id);
+        }
+    }
+    
+    private static final class Index {
+        private final ConcurrentSkipListSet<Entry> upcoming = new ConcurrentSkipListSet<>();
+        private final ConcurrentSkipListSet<Long> overdue = new ConcurrentSkipListSet<>();
+        private final ConcurrentHashMap<Long, Long> dueById = new ConcurrentHashMap<>();
+        
+        void apply(Change change, long now) {
+            Long previous = change.dueMillis() == null
+                ? dueById.remove(change.id())
+                : dueById.put(change.id(), change.dueMillis());
+            if (previous != null) {
+                upcoming.remove(new Entry(previous, change.id()));
+                overdue.remove(change.id());
+            }
+            if (change.dueMillis() != null) {
+                if (change.dueMillis() < now) {
+                    overdue.add(change.id());
+                } else {
+                    upcoming.add(new Entry(change.dueMillis(), change.id()));
+                }
+            }
+        }
+        
+        boolean hasExpired(long now) {
+            Entry head = upcoming.ceiling(Entry.FIRST);
+            return head != null && head.dueMillis() < now;
+        }
+        
+        // Add to the overdue set before removing from the queue so readers never miss the task
+        void advance(long now) {
+            Entry head;
+            while ((head = upcoming.ceiling(Entry.FIRST)) != null && head.dueMillis() < now) {
+                overdue.add(head.id());
+                upcoming.remove(head);
+            }
+        }
+    }
+}
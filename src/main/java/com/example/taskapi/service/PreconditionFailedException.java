@@ -0,0 +1,19 @@
+package com.example.taskapi.service;
+
+/**
+ * Thrown when a write names the version it expects (via {@code If-Match}) and the stored entity
+ * has moved on. Mapped to 412 Precondition Failed.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+    
+    static void checkVersion(String entity, Long id, Long expectedVersion, Long actualVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(actualVersion)) {
+            throw new PreconditionFailedException(entity + " " + id + " is at version " + actualVersion
+                + ", not " + expectedVersion);
+        }
+    }
+}
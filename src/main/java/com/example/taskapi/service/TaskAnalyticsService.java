@@ -0,0 +1,258 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.TaskAnalytics;
+import com.example.taskapi.dto.TaskAnalytics.Bucket;
+import com.example.taskapi.dto.TaskRollupSource;
+import com.example.taskapi.dto.TaskTimestamps;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.TaskRollup;
+import com.example.taskapi.model.TaskRollupState;
+import com.example.taskapi.repository.ArchivedTaskRepository;
+import com.example.taskapi.repository.TaskRepository;
+import com.example.taskapi.repository.TaskRollupRepository;
+import com.example.taskapi.repository.TaskRollupStateRepository;
+import com.example.taskapi.repository.TaskTombstoneRepository;
+import com.example.taskapi.tenant.AllTenants;
+import com.example.taskapi.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Task throughput and cycle time over time, answered from the hourly {@link TaskRollup} table.
+ *
+ * <p>A scheduled refresh keeps the rollups current. Tasks written since the watermark, and
+ * tombstones of tasks deleted since then, name the hours they are counted in; those hours are
+ * recomputed from the tasks and archived tasks tables and replaced. Creation and completion times
+ * never change once set, so recomputing whole hours is enough to pick up edits, status changes
+ * and deletes. Tasks archived since the watermark name their hours too, so that a recompute which
+ * ran while they were being moved is repeated. Without a watermark the table is rebuilt from a
+ * single pass over all tasks.
+ */
+@Service
+public class TaskAnalyticsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskAnalyticsService.class);
+    
+    // Affected hours closer together than this are recomputed as one range, which is harmless
+    // for the hours in between and saves a round of queries per gap
+    private static final Duration MAX_RANGE_GAP = Duration.ofHours(24);
+    private static final int SAVE_BATCH_SIZE = 1000;
+    
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskRollupRepository rollupRepository;
+    private final TaskRollupStateRepository stateRepository;
+    private final EntityManager entityManager;
+    private final Duration settleTime;
+    private final Duration defaultRange;
+    private final int maxBuckets;
+    
+    @Autowired
+    public TaskAnalyticsService(TaskRepository taskRepository, TaskTombstoneRepository tombstoneRepository,
+                                ArchivedTaskRepository archivedTaskRepository, TaskRollupRepository rollupRepository, TaskRollupStateRepository stateRepository,
+                                EntityManager entityManager,
+                                @Value("${task-api.changes.settle-time:PT2S}") Duration settleTime,
+                                @Value("${task-api.analytics.default-range:P30D}") Duration defaultRange,
+                                @Value("${task-api.analytics.max-buckets:1000}") int maxBuckets) {
+        this.taskRepository = taskRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.rollupRepository = rollupRepository;
+        this.stateRepository = stateRepository;
+        this.entityManager = entityManager;
+        this.settleTime = settleTime;
+        this.defaultRange = defaultRange;
+        this.maxBuckets = maxBuckets;
+    }
+    
+    /**
+     * Series over {@code [from, to)}, widened to whole buckets. Both ends are optional: {@code to}
+     * defaults to now and {@code from} to the configured range before it.
+     */
+    @Transactional(readOnly = true)
+    public TaskAnalytics getAnalytics(Bucket bucket, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = bucket.ceil(to != null ? to : LocalDateTime.now());
+        LocalDateTime start = bucket.truncate(from != null ? from : end.minus(defaultRange));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (bucket.count(start, end) > maxBuckets) {
+            throw new IllegalArgumentException("Range spans more than " + maxBuckets + " " +
+                bucket.name().toLowerCase(Locale.ROOT) + " buckets; use a larger bucket or a shorter range");
+        }
+        String tenant = TenantContext.current();
+        List<Object[]> rows = switch (bucket) {
+            case HOUR -> rollupRepository.sumByHour(tenant, start, end);
+            case DAY -> rollupRepository.sumByDay(tenant, start, end);
+            case WEEK -> rollupRepository.sumByWeek(tenant, start, end);
+        };
+        List<TaskAnalytics.Point> series = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long completed = ((Number) row[4]).longValue();
+            long cycleTimeSeconds = ((Number) row[5]).longValue();
+            series.add(new TaskAnalytics.Point(toLocalDateTime(row[0]), Priority.valueOf((String) row[1]),
+                row[2] != null ? ((Number) row[2]).longValue() : null, ((Number) row[3]).longValue(),
+                completed, completed > 0 ? cycleTimeSeconds / completed : null));
+        }
+        LocalDateTime refreshedThrough = stateRepository.findById(TaskRollupState.ID)
+            .map(TaskRollupState::getRefreshedThrough)
+            .orElse(null);
+        return new TaskAnalytics(bucket, start, end, refreshedThrough, series);
+    }
+    
+    /**
+     * Brings the rollups up to date with every write older than the settle time, so that
+     * transactions still in flight are picked up by the next run instead of being skipped.
+     * Covers every tenant in one pass.
+     */
+    @Scheduled(fixedDelayString = "${task-api.analytics.refresh-interval:PT1M}")
+    @AllTenants
+    @Transactional
+    public void refresh() {
+        LocalDateTime until = LocalDateTime.now().minus(settleTime);
+        TaskRollupState state = stateRepository.findLockedById(TaskRollupState.ID).orElse(null);
+        if (state == null) {
+            rebuild();
+            stateRepository.save(new TaskRollupState(TaskRollupState.ID, until));
+            return;
+        }
+        LocalDateTime since = state.getRefreshedThrough();
+        if (!until.isAfter(since)) {
+            return;
+        }
+        NavigableSet<LocalDateTime> hours = new TreeSet<>();
+        for (TaskTimestamps changed : taskRepository.findTimestampsUpdatedBetween(since, until)) {
+            addHours(hours, changed);
+        }
+        for (TaskTimestamps deleted : tombstoneRepository.findTimestampsDeletedBetween(since, until)) {
+            addHours(hours, deleted);
+        }
+        for (TaskTimestamps archived : archivedTaskRepository.findTimestampsArchivedBetween(since, until)) {
+            addHours(hours, archived);
+        }
+        for (LocalDateTime[] range : ranges(hours)) {
+            recompute(range[0], range[1]);
+        }
+        // Saved explicitly: writing the rollups clears the persistence context and detaches it
+        state.setRefreshedThrough(until);
+        stateRepository.save(state);
+        if (!hours.isEmpty()) {
+            log.debug("Refreshed task rollups for {} hours changed since {}", hours.size(), since);
+        }
+    }
+    
+    private void rebuild() {
+        long started = System.nanoTime();
+        rollupRepository.deleteAllInBatch();
+        Map<RollupKey, long[]> totals = new HashMap<>();
+        try (Stream<TaskRollupSource> tasks = taskRepository.streamRollupSources();
+             Stream<TaskRollupSource> archived = archivedTaskRepository.streamRollupSources()) {
+            Stream.concat(tasks, archived).forEach(task -> {
+                addCreated(totals, task);
+                if (task.completedAt() != null) {
+                    addCompleted(totals, task);
+                }
+            });
+        }
+        save(totals);
+        log.info("Rebuilt {} task rollups in {} ms", totals.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    // Replaces the rollups of every hour in [from, to) with counts taken from the tasks and the archive
+    private void recompute(LocalDateTime from, LocalDateTime to) {
+        Map<RollupKey, long[]> totals = new HashMap<>();
+        taskRepository.findRollupSourcesCreatedBetween(from, to).forEach(task -> addCreated(totals, task));
+        taskRepository.findRollupSourcesCompletedBetween(from, to).forEach(task -> addCompleted(totals, task));
+        archivedTaskRepository.findRollupSourcesCreatedBetween(from, to).forEach(task -> addCreated(totals, task));
+        archivedTaskRepository.findRollupSourcesCompletedBetween(from, to).forEach(task -> addCompleted(totals, task));
+        rollupRepository.deleteBetween(from, to);
+        save(totals);
+    }
+    
+    private void save(Map<RollupKey, long[]> totals) {
+        List<TaskRollup> batch = new ArrayList<>(Math.min(totals.size(), SAVE_BATCH_SIZE));
+        for (Map.Entry<RollupKey, long[]> entry : totals.entrySet()) {
+            RollupKey key = entry.getKey();
+            long[] counts = entry.getValue();
+            batch.add(new TaskRollup(key.tenant(), key.hour(), key.priority(), key.categoryId(), counts[0], counts[1], counts[2]));
+            if (batch.size() == SAVE_BATCH_SIZE) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+    }
+    
+    // Keeps a full rebuild from accumulating every rollup in the persistence context
+    private void flush(List<TaskRollup> batch) {
+        rollupRepository.saveAll(batch);
+        entityManager.flush();
+        entityManager.clear();
+        batch.clear();
+    }
+    
+    private record RollupKey(String tenant, LocalDateTime hour, Priority priority, Long categoryId) {
+    }
+    
+    private static void addCreated(Map<RollupKey, long[]> totals, TaskRollupSource task) {
+        RollupKey key = new RollupKey(task.tenantId(), task.createdAt().truncatedTo(ChronoUnit.HOURS), task.priority(),
+            task.categoryId());
+        totals.computeIfAbsent(key, k -> new long[3])[0]++;
+    }
+    
+    private static void addCompleted(Map<RollupKey, long[]> totals, TaskRollupSource task) {
+        RollupKey key = new RollupKey(task.tenantId(), task.completedAt().truncatedTo(ChronoUnit.HOURS), task.priority(),
+            task.categoryId());
+        long[] counts = totals.computeIfAbsent(key, k -> new long[3]);
+        counts[1]++;
+        counts[2] += Math.max(0, Duration.between(task.createdAt(), task.completedAt()).getSeconds());
+    }
+    
+    private static void addHours(NavigableSet<LocalDateTime> hours, TaskTimestamps timestamps) {
+        // Tombstones written before the timestamps were recorded have neither
+        if (timestamps.createdAt() != null) {
+            hours.add(timestamps.createdAt().truncatedTo(ChronoUnit.HOURS));
+        }
+        if (timestamps.completedAt() != null) {
+            hours.add(timestamps.completedAt().truncatedTo(ChronoUnit.HOURS));
+        }
+    }
+    
+    // Collapses sorted hours into [from, to) ranges, joining hours separated by short gaps
+    private static List<LocalDateTime[]> ranges(NavigableSet<LocalDateTime> hours) {
+        List<LocalDateTime[]> ranges = new ArrayList<>();
+        LocalDateTime[] current = null;
+        for (LocalDateTime hour : hours) {
+            if (current != null && !hour.isAfter(current[1].plus(MAX_RANGE_GAP))) {
+                current[1] = hour.plusHours(1);
+            } else {
+                current = new LocalDateTime[] {hour, hour.plusHours(1)};
+                ranges.add(current);
+            }
+        }
+        return ranges;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
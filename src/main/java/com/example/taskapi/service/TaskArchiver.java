@@ -0,0 +1,62 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.tenant.AllTenants;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves completed and cancelled tasks that have not been updated for the configured age from the
+ * tasks table to the archive, so the table and its indexes only hold tasks that are still worked
+ * on or recently finished. Each batch is moved in its own transaction; a run continues until a
+ * batch comes back short. The number of tasks moved per run is recorded as {@code task.archive.moved}.
+ */
+@Component
+public class TaskArchiver {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+    
+    private final TaskService taskService;
+    private final Duration age;
+    private final int batchSize;
+    private final DistributionSummary moved;
+    
+    @Autowired
+    public TaskArchiver(TaskService taskService, MeterRegistry registry,
+                        @Value("${task-api.archive.age:P90D}") Duration age,
+                        @Value("${task-api.archive.batch-size:1000}") int batchSize) {
+        this.taskService = taskService;
+        this.age = age;
+        this.batchSize = batchSize;
+        this.moved = DistributionSummary.builder("task.archive.moved")
+            .description("Tasks moved to the archive per archiver run")
+            .baseUnit("tasks")
+            .register(registry);
+    }
+    
+    @Scheduled(fixedDelayString = "${task-api.archive.interval:PT1H}")
+    @AllTenants
+    public void archive() {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        int total = 0;
+        int batch;
+        do {
+            batch = taskService.archiveTasks(cutoff, batchSize);
+            total += batch;
+        } while (batch == batchSize);
+        moved.record(total);
+        if (total > 0) {
+            log.info("Archived {} tasks last updated before {} in {} ms", total, cutoff,
+                (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.ChangeToken;
+import com.example.taskapi.dto.TaskChanges;
+import com.example.taskapi.tenant.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long polling on top of {@link TaskService#getChangesSince}. When there is nothing new, the
+ * request is parked without a thread until a task write commits or the wait runs out, so idle
+ * clients cost a connection rather than a servlet thread. A woken request reads the feed again
+ * once the settle time has passed, since the feed holds back younger changes.
+ *
+ * <p>Every read runs on this class's own threads, never on the request thread: with
+ * open-in-view, a request that touched the database would keep its connection until the
+ * response is written, so each parked request would pin a pooled connection. Those threads read
+ * for the tenant of the request that started the wait.
+ */
+@Component
+public class TaskChangeFeed {
+    
+    private static final int WAITING = 0;
+    private static final int CHANGED = 1;
+    private static final int TIMED_OUT = 2;
+    
+    private final TaskService taskService;
+    private final TaskChangeNotifier notifier;
+    private final Duration settleTime;
+    private final Duration maxWait;
+    private final ScheduledExecutorService scheduler;
+    
+    @Autowired
+    public TaskChangeFeed(TaskService taskService, TaskChangeNotifier notifier, MeterRegistry meterRegistry,
+                          @Value("${task-api.changes.settle-time:PT2S}") Duration settleTime,
+                          @Value("${task-api.changes.max-wait:PT60S}") Duration maxWait,
+                          @Value("${task-api.changes.long-poll-threads:4}") int threads) {
+        this.taskService = taskService;
+        this.notifier = notifier;
+        this.settleTime = settleTime;
+        this.maxWait = maxWait;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "task-changes-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("task.changes.waiting", notifier, TaskChangeNotifier::waiting)
+            .description("Long-polling change feed requests waiting for a write")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Changes since {@code since}, waiting up to {@code wait} (capped at the configured maximum)
+     * for some to appear. Completes with an empty page and a fresh token if none do.
+     */
+    public CompletableFuture<TaskChanges> awaitChanges(String since, Integer limit, Duration wait) {
+        if (wait.isNegative()) {
+            throw new IllegalArgumentException("wait must not be negative");
+        }
+        long deadline = System.nanoTime() + (wait.compareTo(maxWait) > 0 ? maxWait : wait).toNanos();
+        // Reject a malformed token straight away rather than from the async result
+        ChangeToken.parse(since);
+        String tenant = TenantContext.current();
+        CompletableFuture<TaskChanges> result = new CompletableFuture<>();
+        scheduler.execute(() -> read(tenant, since, limit, deadline, result));
+        return result;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
+    private void read(String tenant, String since, Integer limit, long deadline, CompletableFuture<TaskChanges> result) {
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            poll(tenant, since, limit, deadline, result);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+    
+    private void poll(String tenant, String since, Integer limit, long deadline, CompletableFuture<TaskChanges> result) {
+        Waiter waiter = new Waiter(tenant, limit, deadline, result);
+        waiter.unsubscribe = notifier.subscribe(waiter::changed);
+        TaskChanges changes;
+        try {
+            changes = taskService.getChangesSince(since, limit);
+        } catch (RuntimeException e) {
+            waiter.unsubscribe.run();
+            throw e;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (!changes.getChanged().isEmpty() || !changes.getDeleted().isEmpty() || changes.isHasMore() || remaining <= 0) {
+            waiter.unsubscribe.run();
+            result.complete(changes);
+            return;
+        }
+        waiter.park(changes, remaining);
+    }
+    
+    private final class Waiter {
+        private final String tenant;
+        private final Integer limit;
+        private final long deadline;
+        private final CompletableFuture<TaskChanges> result;
+        private volatile Runnable unsubscribe;
+        private volatile TaskChanges latest;
+        private volatile ScheduledFuture<?> timeout;
+        // Set once by whichever of the write signal and the timeout comes first
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final AtomicBoolean readScheduled = new AtomicBoolean();
+        
+        Waiter(String tenant, Integer limit, long deadline, CompletableFuture<TaskChanges> result) {
+            this.tenant = tenant;
+            this.limit = limit;
+            this.deadline = deadline;
+            this.result = result;
+        }
+        
+        void park(TaskChanges changes, long remainingNanos) {
+            latest = changes;
+            timeout = scheduler.schedule(this::timedOut, remainingNanos, TimeUnit.NANOSECONDS);
+            // A write may have committed while the feed was being read
+            if (state.get() == CHANGED) {
+                timeout.cancel(false);
+                scheduleRead();
+            }
+        }
+        
+        void changed() {
+            if (state.compareAndSet(WAITING, CHANGED) && timeout != null) {
+                timeout.cancel(false);
+                scheduleRead();
+            }
+        }
+        
+        private void timedOut() {
+            if (state.compareAndSet(WAITING, TIMED_OUT)) {
+                unsubscribe.run();
+                result.complete(latest);
+            }
+        }
+        
+        private void scheduleRead() {
+            if (!readScheduled.compareAndSet(false, true)) {
+                return;
+            }
+            long delay = Math.min(settleTime.toNanos(), Math.max(0, deadline - System.nanoTime()));
+            scheduler.schedule(() -> read(tenant, latest.getNextToken(), limit, deadline, result), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+}
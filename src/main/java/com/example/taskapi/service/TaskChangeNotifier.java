@@ -0,0 +1,38 @@
+package com.example.taskapi.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells long-polling change feed requests that a task write has committed. Listeners fire at most
+ * once and are removed when they do; a waiter that times out removes its own listener.
+ */
+@Component
+public class TaskChangeNotifier {
+    
+    private final Set<Runnable> listeners = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Registers a listener for the next change and returns the action that unregisters it.
+     * Subscribe before reading the feed so that a commit landing in between is not missed.
+     */
+    public Runnable subscribe(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+    
+    // Runs on the committing thread, so listeners must only hand work off
+    public void signal() {
+        for (Runnable listener : listeners) {
+            if (listeners.remove(listener)) {
+                listener.run();
+            }
+        }
+    }
+    
+    public int waiting() {
+        return listeners.size();
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.TaskEvent;
+import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.tenant.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed task events out to streaming subscribers ({@code GET /api/tasks/events}).
+ * Publishing only appends to per-subscriber buffers; a small pool of sender threads writes them
+ * out, so a slow client never delays the committing thread or other subscribers' buffers.
+ *
+ * <p>Each buffer is bounded. A subscriber that falls that far behind has its backlog dropped and
+ * receives a single reset instead, after which it should resync through the change feed. The
+ * most recent events are also kept in a replay window so a client reconnecting with the id of
+ * the last event it saw gets what it missed; if that id has already left the window, it gets a reset.
+ */
+@Component
+public class TaskEventBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+    
+    /**
+     * Where a subscriber's events go. Called from a sender thread, one call at a time per subscriber.
+     */
+    public interface Sink {
+        void event(long id, TaskEvent event) throws IOException;
+        
+        // Events up to resetId were dropped; the subscriber should resync from the change feed
+        void reset(long resetId) throws IOException;
+        
+        void heartbeat() throws IOException;
+        
+        void close();
+    }
+    
+    public interface Subscription {
+        void cancel();
+    }
+    
+    private record Envelope(long id, TaskEvent event) {
+    }
+    
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    // Guarded by this: publishing, the replay window and registering subscribers are serialized
+    // so a subscriber resuming from an id sees every later event exactly once
+    private final ArrayDeque<Envelope> replay = new ArrayDeque<>();
+    // Ids start from the boot time so a client's id from before a restart never matches a new event
+    private long lastId = System.currentTimeMillis() * 1000;
+    
+    @Autowired
+    public TaskEventBroadcaster(MeterRegistry meterRegistry,
+                                @Value("${task-api.events.buffer-size:256}") int bufferSize,
+                                @Value("${task-api.events.replay-size:1000}") int replaySize,
+                                @Value("${task-api.events.max-subscribers:1000}") int maxSubscribers,
+                                @Value("${task-api.events.sender-threads:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-events-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("task.events.subscribers", subscribers, Set::size)
+            .description("Open task event streams")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Registers a subscriber for the current tenant's events matching the optional category and
+     * status filters. With
+     * {@code lastEventId}, the events after it still in the replay window are delivered first.
+     *
+     * @return empty when the subscriber limit has been reached
+     */
+    public Optional<Subscription> subscribe(Long categoryId, Status status, Long lastEventId, Sink sink) {
+        Subscriber subscriber = new Subscriber(TenantContext.current(), categoryId, status, sink);
+        synchronized (this) {
+            if (subscribers.size() >= maxSubscribers) {
+                return Optional.empty();
+            }
+            if (lastEventId != null) {
+                long oldest = replay.isEmpty() ? lastId + 1 : replay.peekFirst().id();
+                if (lastEventId < oldest - 1 || lastEventId > lastId) {
+                    subscriber.overflow(lastId);
+                } else {
+                    replay.stream()
+                        .filter(envelope -> envelope.id() > lastEventId)
+                        .forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return Optional.of(subscriber);
+    }
+    
+    public void publish(TaskEvent event) {
+        publish(List.of(event));
+    }
+    
+    public synchronized void publish(List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            Envelope envelope = new Envelope(++lastId, event);
+            replay.addLast(envelope);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(envelope);
+            }
+        }
+    }
+    
+    // Keeps idle connections open through proxies and finds clients that have gone away
+    @Scheduled(fixedDelayString = "${task-api.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> {
+            subscriber.cancel();
+            subscriber.sink.close();
+        });
+        senders.shutdownNow();
+    }
+    
+    private final class Subscriber implements Subscription {
+        private final String tenant;
+        private final Long categoryId;
+        private final Status status;
+        private final Sink sink;
+        // Guarded by this
+        private final ArrayDeque<Envelope> buffer = new ArrayDeque<>();
+        // Id of the last dropped event while a reset is pending, otherwise -1
+        private long resetId = -1;
+        private boolean heartbeatDue;
+        private boolean sending;
+        private boolean cancelled;
+        
+        Subscriber(String tenant, Long categoryId, Status status, Sink sink) {
+            this.tenant = tenant;
+            this.categoryId = categoryId;
+            this.status = status;
+            this.sink = sink;
+        }
+        
+        void offer(Envelope envelope) {
+            if (!envelope.event().concerns(tenant, categoryId, status)) {
+                return;
+            }
+            synchronized (this) {
+                if (resetId >= 0 || cancelled) {
+                    return;
+                }
+                if (buffer.size() == bufferSize) {
+                    overflow(envelope.id());
+                    return;
+                }
+                buffer.addLast(envelope);
+                scheduleSend();
+            }
+        }
+        
+        synchronized void overflow(long lastDroppedId) {
+            buffer.clear();
+            resetId = lastDroppedId;
+            scheduleSend();
+        }
+        
+        synchronized void heartbeat() {
+            heartbeatDue = true;
+            scheduleSend();
+        }
+        
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                buffer.clear();
+            }
+            subscribers.remove(this);
+        }
+        
+        // Guarded by this; at most one send task per subscriber is queued or running
+        private void scheduleSend() {
+            if (!sending && !cancelled) {
+                sending = true;
+                senders.execute(this::send);
+            }
+        }
+        
+        private void send() {
+            while (true) {
+                Envelope next = null;
+                long reset = -1;
+                boolean ping = false;
+                synchronized (this) {
+                    if (cancelled) {
+                        sending = false;
+                        return;
+                    }
+                    if (resetId >= 0) {
+                        reset = resetId;
+                        resetId = -1;
+                    } else if (!buffer.isEmpty()) {
+                        next = buffer.pollFirst();
+                    } else if (heartbeatDue) {
+                        heartbeatDue = false;
+                        ping = true;
+                    } else {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    if (reset >= 0) {
+                        sink.reset(reset);
+                    } else if (ping) {
+                        sink.heartbeat();
+                    } else {
+                        sink.event(next.id(), next.event());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Dropping task event subscriber: {}", e.toString());
+                    cancel();
+                    sink.close();
+                    return;
+                }
+            }
+        }
+    }
+}
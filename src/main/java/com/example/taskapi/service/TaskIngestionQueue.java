@@ -0,0 +1,236 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.BatchItemResult;
+import com.example.taskapi.dto.IngestionStatus;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.tenant.TenantContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind queue behind {@code POST /api/tasks/async}. Request threads enqueue validated tasks
+ * and return immediately; a small pool of writer threads drains the queue in batches through
+ * {@link TaskService#createTasks(List)}, one transaction per batch. Items the database refuses fail
+ * on their own, and should a batch fail as a whole, its tasks are written again one at a time.
+ *
+ * <p>The queue is a lock-free linked queue bounded by an atomic counter, so producers never block:
+ * when it is full, {@link #submit(Task)} refuses the task and the caller answers 429. On shutdown
+ * the queue stops after the web server, so nothing new arrives, and writes out what is left.
+ * Each task is written for the tenant that submitted it, and statuses are only visible to that tenant.
+ */
+@Component
+public class TaskIngestionQueue implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskIngestionQueue.class);
+    
+    private record Pending(String tenant, String trackingId, Task task) {
+    }
+    
+    private final TaskService taskService;
+    private final CategoryService categoryService;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Cache<String, IngestionStatus> statuses;
+    private final int capacity;
+    private final int writerThreads;
+    private final int batchSize;
+    private final long idleWaitNanos;
+    private final Duration shutdownTimeout;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+    
+    public TaskIngestionQueue(TaskService taskService, CategoryService categoryService, MeterRegistry registry,
+                              @Value("${task-api.ingest.queue-capacity:10000}") int capacity,
+                              @Value("${task-api.ingest.writer-threads:2}") int writerThreads,
+                              @Value("${task-api.ingest.batch-size:500}") int batchSize,
+                              @Value("${task-api.ingest.idle-wait:PT0.01S}") Duration idleWait,
+                              @Value("${task-api.ingest.status-ttl:PT1H}") Duration statusTtl,
+                              @Value("${task-api.ingest.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.taskService = taskService;
+        this.categoryService = categoryService;
+        this.capacity = capacity;
+        this.writerThreads = writerThreads;
+        this.batchSize = batchSize;
+        this.idleWaitNanos = idleWait.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.statuses = Caffeine.newBuilder()
+            .expireAfterWrite(statusTtl)
+            .maximumSize(Math.max(capacity * 10L, 100_000L))
+            .build();
+        Gauge.builder("task.ingest.queue.size", size, AtomicInteger::get)
+            .description("Tasks accepted by POST /api/tasks/async and not yet written")
+            .register(registry);
+    }
+    
+    /**
+     * Enqueues the task and returns its tracking status, or empty when the queue is full or not running.
+     * The category is checked up front (from the category cache) so obvious mistakes fail the request.
+     */
+    public Optional<IngestionStatus> submit(Task task) {
+        if (task.getCategory() != null && task.getCategory().getId() != null
+                && categoryService.getCategoryById(task.getCategory().getId()).isEmpty()) {
+            throw new IllegalArgumentException("Category not found with id: " + task.getCategory().getId());
+        }
+        if (!running) {
+            return Optional.empty();
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return Optional.empty();
+        }
+        String tenant = TenantContext.current();
+        IngestionStatus status = IngestionStatus.queued(UUID.randomUUID().toString());
+        statuses.put(statusKey(tenant, status.getTrackingId()), status);
+        queue.offer(new Pending(tenant, status.getTrackingId(), task));
+        return Optional.of(status);
+    }
+    
+    public Optional<IngestionStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(statusKey(TenantContext.current(), trackingId)));
+    }
+    
+    public int size() {
+        return size.get();
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::drainLoop, "task-ingest-" + i);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        writers.forEach(LockSupport::unpark);
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writers.clear();
+        // Anything a writer did not get to before the deadline is written here rather than dropped
+        drain();
+        if (size.get() > 0) {
+            log.warn("Ingestion queue stopped with {} tasks not written", size.get());
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // Stop after the web server so no request can enqueue while the queue is being drained
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    private void drainLoop() {
+        while (running) {
+            if (!drainBatch()) {
+                LockSupport.parkNanos(idleWaitNanos);
+            }
+        }
+        drain();
+    }
+    
+    private void drain() {
+        while (drainBatch()) {
+            // keep writing until the queue is empty
+        }
+    }
+    
+    private boolean drainBatch() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Pending next;
+        while (batch.size() < batchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        // One transaction per tenant in the batch, in the order the tenants first appear
+        Map<String, List<Pending>> byTenant = new LinkedHashMap<>();
+        batch.forEach(pending -> byTenant.computeIfAbsent(pending.tenant(), tenant -> new ArrayList<>()).add(pending));
+        byTenant.forEach(this::write);
+        size.addAndGet(-batch.size());
+        return true;
+    }
+    
+    private void write(String tenant, List<Pending> batch) {
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            List<BatchItemResult> results;
+            try {
+                results = taskService.createTasks(batch.stream().map(Pending::task).toList());
+            } catch (DataAccessException | TransactionException e) {
+                // Refused before anything was committed; rows the database refuses are already retried one by one
+                // by createTasks, so this is a failure of the whole batch, such as a lost connection
+                if (batch.size() == 1) {
+                    fail(tenant, batch, "Task could not be stored", e);
+                    return;
+                }
+                // Written one by one, so that only the task that caused the failure fails
+                log.warn("Failed to write {} queued tasks, writing them one by one", batch.size(), e);
+                batch.forEach(pending -> write(tenant, List.of(pending)));
+                return;
+            } catch (RuntimeException e) {
+                // Anything else may come after the tasks were committed, and writing them again would store them twice
+                fail(tenant, batch, "Task may not have been stored", e);
+                return;
+            }
+            record(tenant, batch, results);
+        }
+    }
+    
+    private void fail(String tenant, List<Pending> batch, String error, RuntimeException cause) {
+        log.error("Failed to write queued tasks {}", batch.stream().map(Pending::trackingId).toList(), cause);
+        batch.forEach(pending -> statuses.put(statusKey(tenant, pending.trackingId()),
+            IngestionStatus.failed(pending.trackingId(), error)));
+    }
+    
+    private void record(String tenant, List<Pending> batch, List<BatchItemResult> results) {
+        for (int i = 0; i < batch.size(); i++) {
+            BatchItemResult result = results.get(i);
+            String trackingId = batch.get(i).trackingId();
+            statuses.put(statusKey(tenant, trackingId), result.getOutcome() == BatchItemResult.Outcome.FAILED
+                ? IngestionStatus.failed(trackingId, result.getError())
+                : IngestionStatus.created(trackingId, result.getId()));
+        }
+    }
+    
+    private static String statusKey(String tenant, String trackingId) {
+        return tenant + '/' + trackingId;
+    }
+}
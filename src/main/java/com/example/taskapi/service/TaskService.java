@@ -1,70 +1,363 @@
 package com.example.taskapi.service;
 
+import com.example.taskapi.datasource.ReadFromPrimary;
+import com.example.taskapi.dto.BatchItemResult;
+import com.example.taskapi.dto.BatchItemResult.Outcome;
+import com.example.taskapi.dto.ChangeToken;
+import com.example.taskapi.dto.TaskChanges;
+import com.example.taskapi.dto.TaskEvent;
+import com.example.taskapi.dto.TaskSearchCriteria;
+import com.example.taskapi.dto.TaskState;
+import com.example.taskapi.dto.TaskSummary;
+import com.example.taskapi.dto.TaskText;
+import com.example.taskapi.model.ArchivedTask;
 import com.example.taskapi.model.Task;
 import com.example.taskapi.model.Task.Priority;
 import com.example.taskapi.model.Task.Status;
 import com.example.taskapi.model.Category;
+import com.example.taskapi.model.TaskTombstone;
+import com.example.taskapi.repository.ArchivedTaskRepository;
 import com.example.taskapi.repository.TaskRepository;
+import com.example.taskapi.repository.TaskTombstoneRepository;
 import com.example.taskapi.repository.CategoryRepository;
+import com.example.taskapi.repository.TaskSpecifications;
+import com.example.taskapi.tenant.AllTenants;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "task.service", percentiles = {0.5, 0.95, 0.99})
 @Transactional
 public class TaskService {
     
+    private static final Logger log = LoggerFactory.getLogger(TaskService.class);
+    
+    private static final int STATUS_UPDATE_ATTEMPTS = 3;
+    
     private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final EntityManager entityManager;
+    private final TaskStatsCache statsCache;
+    private final OverdueTracker overdueTracker;
+    private final TaskTextIndex textIndex;
+    private final TaskChangeNotifier changeNotifier;
+    private final TaskEventBroadcaster eventBroadcaster;
+    private final Validator validator;
+    private final TransactionTemplate transactions;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+    private final Duration changesSettleTime;
+    private final Duration tombstoneRetention;
     
     @Autowired
-    public TaskService(TaskRepository taskRepository, CategoryRepository categoryRepository) {
+    public TaskService(TaskRepository taskRepository, TaskTombstoneRepository tombstoneRepository,
+                       ArchivedTaskRepository archivedTaskRepository, CategoryRepository categoryRepository,
+                       CategoryService categoryService,
+                       EntityManager entityManager, TaskStatsCache statsCache,
+                       OverdueTracker overdueTracker, TaskTextIndex textIndex,
+                       TaskChangeNotifier changeNotifier, TaskEventBroadcaster eventBroadcaster,
+                       Validator validator, PlatformTransactionManager transactionManager,
+                       @Value("${task-api.pagination.default-limit:100}") int defaultPageSize,
+                       @Value("${task-api.pagination.max-limit:1000}") int maxPageSize,
+                       @Value("${task-api.batch.max-size:5000}") int maxBatchSize,
+                       @Value("${task-api.changes.settle-time:PT2S}") Duration changesSettleTime,
+                       @Value("${task-api.changes.tombstone-retention:P30D}") Duration tombstoneRetention) {
         this.taskRepository = taskRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
         this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+        this.entityManager = entityManager;
+        this.statsCache = statsCache;
+        this.overdueTracker = overdueTracker;
+        this.textIndex = textIndex;
+        this.changeNotifier = changeNotifier;
+        this.eventBroadcaster = eventBroadcaster;
+        this.validator = validator;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+        this.changesSettleTime = changesSettleTime;
+        this.tombstoneRetention = tombstoneRetention;
     }
     
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Task> getAllTasks(Long afterId, Integer limit) {
+        return taskRepository.findByIdGreaterThanOrderByIdAsc(cursor(afterId), pageLimit(limit));
     }
     
+    @Transactional(readOnly = true)
     public Optional<Task> getTaskById(Long id) {
-        return taskRepository.findById(id);
+        return getTaskById(id, false);
+    }
+    
+    /**
+     * The task with the given id; with {@code includeArchived}, a task that is not in the tasks
+     * table is looked up in the archive.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Task> getTaskById(Long id, boolean includeArchived) {
+        Optional<Task> task = taskRepository.findById(id);
+        if (task.isPresent() || !includeArchived) {
+            return task;
+        }
+        return archivedTaskRepository.findById(id).map(ArchivedTask::toTask);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Task> getTasksByStatus(Status status, Long afterId, Integer limit) {
+        return getTasksByStatus(status, afterId, limit, false);
+    }
+    
+    /**
+     * A page of tasks in the given status in id order; with {@code includeArchived}, archived tasks
+     * are merged in by id. Only completed and cancelled tasks are ever archived.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> getTasksByStatus(Status status, Long afterId, Integer limit, boolean includeArchived) {
+        List<Task> tasks = taskRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, cursor(afterId), pageLimit(limit));
+        if (!includeArchived || status.isOpen()) {
+            return tasks;
+        }
+        List<Task> archived = archivedTaskRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, cursor(afterId),
+            pageLimit(limit)).stream().map(ArchivedTask::toTask).toList();
+        return mergeById(tasks, archived, Task::getId, resolvePageSize(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Task> getTasksByPriority(Priority priority, Long afterId, Integer limit) {
+        return taskRepository.findByPriorityAndIdGreaterThanOrderByIdAsc(priority, cursor(afterId), pageLimit(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Task> getTasksByCategory(Long categoryId, Long afterId, Integer limit) {
+        return taskRepository.findByCategoryIdAndIdGreaterThanOrderByIdAsc(categoryId, cursor(afterId), pageLimit(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Task> getOverdueTasks(Long afterId, Integer limit) {
+        if (!overdueTracker.isReady()) {
+            return taskRepository.findOverdueTasks(LocalDateTime.now(), cursor(afterId), pageLimit(limit));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return fillFromIndex(resolvePageSize(limit), cursor(afterId), overdueTracker::overdueIds, Function.identity(),
+            ids -> taskRepository.findOverdueByIdIn(ids, now), Task::getId);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummaries(Long afterId, Integer limit) {
+        return taskRepository.findSummaries(cursor(afterId), pageLimit(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesByStatus(Status status, Long afterId, Integer limit) {
+        return getTaskSummariesByStatus(status, afterId, limit, false);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesByStatus(Status status, Long afterId, Integer limit, boolean includeArchived) {
+        List<TaskSummary> summaries = taskRepository.findSummariesByStatus(status, cursor(afterId), pageLimit(limit));
+        if (!includeArchived || status.isOpen()) {
+            return summaries;
+        }
+        List<TaskSummary> archived = archivedTaskRepository.findSummariesByStatus(status, cursor(afterId), pageLimit(limit));
+        return mergeById(summaries, archived, TaskSummary::id, resolvePageSize(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesByPriority(Priority priority, Long afterId, Integer limit) {
+        return taskRepository.findSummariesByPriority(priority, cursor(afterId), pageLimit(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getTaskSummariesByCategory(Long categoryId, Long afterId, Integer limit) {
+        return taskRepository.findSummariesByCategory(categoryId, cursor(afterId), pageLimit(limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<TaskSummary> getOverdueTaskSummaries(Long afterId, Integer limit) {
+        if (!overdueTracker.isReady()) {
+            return taskRepository.findOverdueSummaries(LocalDateTime.now(), cursor(afterId), pageLimit(limit));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return fillFromIndex(resolvePageSize(limit), cursor(afterId), overdueTracker::overdueIds, Function.identity(),
+            ids -> taskRepository.findOverdueSummariesByIdIn(ids, now), TaskSummary::id);
+    }
+    
+    /**
+     * Open tasks due between now and now + {@code window}, soonest first.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> getTasksDueWithin(Duration window, Integer limit) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!overdueTracker.isReady()) {
+            return taskRepository.findOpenTasksDueBetween(now, now.plus(window), pageLimit(limit));
+        }
+        return fillFromIndex(resolvePageSize(limit), null,
+            (after, size) -> overdueTracker.dueWithin(window, after, size), OverdueTracker.Entry::id,
+            ids -> taskRepository.findOpenTasksDueBetweenByIdIn(ids, now, now.plus(window)), Task::getId);
     }
     
-    public List<Task> getTasksByStatus(Status status) {
-        return taskRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<Task> searchTasks(TaskSearchCriteria criteria) {
+        Sort sort = criteria.toSort();
+        int limit = resolvePageSize(criteria.getLimit());
+        return taskRepository.findBy(TaskSpecifications.matching(criteria),
+            query -> query.sortBy(sort).limit(limit).all());
     }
     
-    public List<Task> getTasksByPriority(Priority priority) {
-        return taskRepository.findByPriority(priority);
+    /**
+     * Tasks whose title or description contains every word of {@code query}, the last word also
+     * matching as a prefix, most relevant first. Served from {@link TaskTextIndex}; until it has
+     * been built, falls back to a table scan ordered newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> searchText(String query, Status status, Priority priority, Long categoryId, Integer limit) {
+        if (!textIndex.isReady()) {
+            return scanText(query, status, priority, categoryId, resolvePageSize(limit));
+        }
+        return findInOrder(textIndex.search(query, status, priority, categoryId, resolvePageSize(limit)),
+            ids -> taskRepository.findMatchingByIdIn(ids, status, priority, categoryId), Task::getId);
     }
     
-    public List<Task> getTasksByCategory(Long categoryId) {
-        return taskRepository.findByCategoryId(categoryId);
+    @Transactional(readOnly = true)
+    public List<TaskSummary> searchTextSummaries(String query, Status status, Priority priority, Long categoryId,
+                                                 Integer limit) {
+        List<Long> ids = textIndex.isReady()
+            ? textIndex.search(query, status, priority, categoryId, resolvePageSize(limit))
+            : scanText(query, status, priority, categoryId, resolvePageSize(limit)).stream().map(Task::getId).toList();
+        return findInOrder(ids, found -> taskRepository.findMatchingSummariesByIdIn(found, status, priority, categoryId),
+            TaskSummary::id);
     }
     
-    public List<Task> getOverdueTasks() {
-        return taskRepository.findOverdueTasks(LocalDateTime.now());
+    /**
+     * Streams every task to the consumer in id order without holding the full result set in memory.
+     * Each task is detached once consumed so the persistence context stays small.
+     */
+    @Transactional(readOnly = true)
+    public void exportTasks(Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+    
+    /**
+     * Tasks created or updated and tasks deleted since {@code since}, in (updatedAt, id) order.
+     * Changes younger than the settle time are held back so that a transaction which stamped
+     * {@code updatedAt} but has not committed yet cannot slip behind the returned token.
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public TaskChanges getChangesSince(String since, Integer limit) {
+        ChangeToken from = ChangeToken.parse(since);
+        LocalDateTime now = LocalDateTime.now();
+        if (from != ChangeToken.BEGINNING && from.timestamp().isBefore(now.minus(tombstoneRetention))) {
+            throw new IllegalArgumentException("Change token is older than the tombstone retention; resync from scratch");
+        }
+        // Database timestamps carry microseconds at most, so keep the token comparable with stored values
+        LocalDateTime until = now.minus(changesSettleTime).truncatedTo(ChronoUnit.MICROS);
+        int pageSize = resolvePageSize(limit);
+        List<Task> changed = taskRepository.findChangedBetween(from.timestamp(), from.id(), until, Limit.of(pageSize));
+        
+        boolean hasMore = changed.size() == pageSize;
+        ChangeToken next;
+        if (hasMore) {
+            Task last = changed.get(changed.size() - 1);
+            next = new ChangeToken(last.getUpdatedAt(), last.getId());
+        } else if (until.isAfter(from.timestamp())) {
+            next = new ChangeToken(until, Long.MAX_VALUE);
+        } else {
+            next = from;
+        }
+        List<Long> deleted = next.timestamp().isAfter(from.timestamp())
+            ? tombstoneRepository.findTaskIdsDeletedBetween(from.timestamp(), next.timestamp())
+            : List.of();
+        return new TaskChanges(changed, deleted, next.toString(), hasMore);
     }
     
     public Task createTask(Task task) {
         // Validate category if provided
         if (task.getCategory() != null && task.getCategory().getId() != null) {
-            Category category = categoryRepository.findById(task.getCategory().getId())
+            Category category = categoryService.getCategoryById(task.getCategory().getId())
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + task.getCategory().getId()));
             task.setCategory(category);
         }
         
-        return taskRepository.save(task);
+        // A version in the request body must not turn the insert into a merge
+        task.setVersion(null);
+        Task saved = taskRepository.save(task);
+        // Built after commit: the tenant is only stamped on a new task when it is flushed
+        afterCommit(() -> {
+            statsCache.add(TaskStatsCache.Bucket.of(saved));
+            overdueTracker.track(saved);
+            textIndex.add(TaskText.of(saved));
+            categoryService.evictTaskCounts();
+            changeNotifier.signal();
+            eventBroadcaster.publish(TaskEvent.created(saved));
+        });
+        return saved;
     }
     
     public Task updateTask(Long id, Task taskDetails) {
+        return updateTask(id, taskDetails, null);
+    }
+    
+    /**
+     * Applies the non-null fields of {@code taskDetails}. When {@code expectedVersion} is given and
+     * the task has a different version, nothing is changed and {@link PreconditionFailedException}
+     * is thrown; a concurrent update committed in between fails the flush with an optimistic lock error.
+     */
+    public Task updateTask(Long id, Task taskDetails, Long expectedVersion) {
         Task task = taskRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Task not found with id: " + id));
+        PreconditionFailedException.checkVersion("Task", id, expectedVersion, task.getVersion());
+        TaskStatsCache.Bucket before = TaskStatsCache.Bucket.of(task);
+        TaskText textBefore = TaskText.of(task);
         
         // Only update non-null fields
         if (taskDetails.getTitle() != null && !taskDetails.getTitle().trim().isEmpty()) {
@@ -85,7 +378,7 @@ public class TaskService {
         
         // Update category if provided
         if (taskDetails.getCategory() != null && taskDetails.getCategory().getId() != null) {
-            Category category = categoryRepository.findById(taskDetails.getCategory().getId())
+            Category category = categoryService.getCategoryById(taskDetails.getCategory().getId())
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + taskDetails.getCategory().getId()));
             task.setCategory(category);
         } else if (taskDetails.getCategory() != null && taskDetails.getCategory().getId() == null) {
@@ -93,25 +386,479 @@ public class TaskService {
             task.setCategory(null);
         }
         
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        TaskStatsCache.Bucket after = TaskStatsCache.Bucket.of(saved);
+        TaskText textAfter = TaskText.of(saved);
+        afterCommit(() -> {
+            statsCache.move(before, after);
+            overdueTracker.track(saved);
+            textIndex.update(textBefore, textAfter);
+            categoryService.evictTaskCounts();
+            changeNotifier.signal();
+            // Built after commit so the event carries the version the flush assigned
+            eventBroadcaster.publish(TaskEvent.updated(saved, before.status(), before.categoryId()));
+        });
+        return saved;
     }
     
-    public Task updateTaskStatus(Long id, Status status) {
+    /**
+     * Changes the status with one conditional UPDATE instead of loading and dirty-checking the task.
+     * A narrow read supplies the version and the pre-image the counters need; the UPDATE only
+     * applies while the version is unchanged. If another writer got in between, the change is
+     * retried, unless the caller asked for {@code expectedVersion}, which fails with
+     * {@link PreconditionFailedException}.
+     *
+     * @return the task's state after the update
+     */
+    public TaskState updateTaskStatus(Long id, Status status, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            TaskState before = taskRepository.findStateById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Task not found with id: " + id));
+            PreconditionFailedException.checkVersion("Task", id, expectedVersion, before.version());
+            
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime completedAt = status == Status.COMPLETED ? now : null;
+            if (taskRepository.updateStatus(id, before.version(), status, now, completedAt) == 1) {
+                TaskState after = before.withStatus(status);
+                afterCommit(() -> {
+                    String tenant = after.tenantId();
+                    statsCache.move(new TaskStatsCache.Bucket(tenant, before.status(), before.priority(), before.categoryId()),
+                        new TaskStatsCache.Bucket(tenant, after.status(), after.priority(), after.categoryId()));
+                    overdueTracker.track(tenant, id, after.status(), after.dueDate());
+                    textIndex.updateStatus(tenant, id, after.status());
+                    categoryService.evictTaskCounts();
+                    changeNotifier.signal();
+                    eventBroadcaster.publish(TaskEvent.statusChanged(tenant, id, after.version(), after.status(),
+                        after.priority(), after.categoryId(), before.status()));
+                });
+                return after;
+            }
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException("Task " + id + " was modified concurrently");
+            }
+            if (attempt == STATUS_UPDATE_ATTEMPTS) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, id);
+            }
+        }
+    }
+    
+    public void deleteTask(Long id) {
         Task task = taskRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Task not found with id: " + id));
+        TaskStatsCache.Bucket bucket = TaskStatsCache.Bucket.of(task);
+        TaskText text = TaskText.of(task);
+        TaskEvent event = TaskEvent.deleted(task);
+        String tenant = task.getTenantId();
+        taskRepository.delete(task);
+        tombstoneRepository.save(TaskTombstone.of(task, LocalDateTime.now()));
+        afterCommit(() -> {
+            statsCache.remove(bucket);
+            overdueTracker.untrack(tenant, id);
+            textIndex.remove(text);
+            categoryService.evictTaskCounts();
+            changeNotifier.signal();
+            eventBroadcaster.publish(event);
+        });
+    }
+    
+    /**
+     * Creates many tasks. Invalid items are reported individually and skipped; the rest are
+     * inserted through JDBC batches in one transaction. Should the database refuse that batch, each
+     * task is retried in a transaction of its own, so only the rows it refuses fail, without the
+     * database's message. Referenced categories are loaded with one query.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchItemResult> createTasks(List<Task> tasks) {
+        checkBatchSize(tasks);
+        Set<Long> categoryIds = tasks.stream()
+            .filter(Objects::nonNull)
+            .map(Task::getCategory)
+            .filter(category -> category != null && category.getId() != null)
+            .map(Category::getId)
+            .collect(Collectors.toSet());
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+            .collect(Collectors.toMap(Category::getId, Function.identity()));
+        
+        BatchItemResult[] results = new BatchItemResult[tasks.size()];
+        List<Task> valid = new ArrayList<>(tasks.size());
+        List<Integer> validIndexes = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String error = validateNewTask(task, categories);
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, null, error);
+                continue;
+            }
+            if (task.getCategory() != null) {
+                task.setCategory(task.getCategory().getId() != null ? categories.get(task.getCategory().getId()) : null);
+            }
+            valid.add(task);
+            validIndexes.add(i);
+        }
         
-        task.setStatus(status);
-        return taskRepository.save(task);
+        List<Task> saved = new ArrayList<>(valid.size());
+        try {
+            saved.addAll(insert(valid));
+            for (int i = 0; i < valid.size(); i++) {
+                results[validIndexes.get(i)] = BatchItemResult.success(validIndexes.get(i), valid.get(i).getId(), Outcome.CREATED);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Batch of {} tasks refused by the database, inserting them one by one: {}", valid.size(),
+                e.getMostSpecificCause().getMessage());
+            for (int i = 0; i < valid.size(); i++) {
+                int index = validIndexes.get(i);
+                try {
+                    saved.addAll(insert(List.of(valid.get(i))));
+                    results[index] = BatchItemResult.success(index, valid.get(i).getId(), Outcome.CREATED);
+                } catch (DataAccessException rowFailure) {
+                    log.warn("Task {} of the batch refused by the database: {}", index,
+                        rowFailure.getMostSpecificCause().getMessage());
+                    results[index] = BatchItemResult.failed(index, null, "Task could not be stored");
+                }
+            }
+        }
+        // Each insert() committed its own transaction, and this method runs in none, so the saved tasks are final here.
+        // Built from them rather than the input: the tenant is only stamped on a new task when it is flushed
+        if (!saved.isEmpty()) {
+            saved.forEach(task -> statsCache.add(TaskStatsCache.Bucket.of(task)));
+            saved.forEach(overdueTracker::track);
+            saved.forEach(task -> textIndex.add(TaskText.of(task)));
+            categoryService.evictTaskCounts();
+            changeNotifier.signal();
+            eventBroadcaster.publish(saved.stream().map(TaskEvent::created).toList());
+        }
+        return List.of(results);
     }
     
-    public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new IllegalArgumentException("Task not found with id: " + id);
+    // Flushed inside the transaction, so whatever the database refuses surfaces here as a DataAccessException
+    private List<Task> insert(List<Task> tasks) {
+        // Batch items are always inserts, never merges into an existing row; reset too after a rolled back attempt
+        tasks.forEach(task -> {
+            task.setId(null);
+            task.setVersion(null);
+        });
+        return transactions.execute(status -> taskRepository.saveAllAndFlush(tasks));
+    }
+    
+    /**
+     * Moves every listed task to the given status. Unknown ids are reported as failures.
+     */
+    public List<BatchItemResult> updateTaskStatuses(List<Long> ids, Status status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        checkBatchSize(ids);
+        Map<Long, Task> tasks = findAllByIdAsMap(ids);
+        
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        List<TaskStatsCache.Bucket[]> moves = new ArrayList<>(ids.size());
+        List<Task> updated = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Task task = id != null ? tasks.get(id) : null;
+            if (task == null) {
+                results.add(BatchItemResult.failed(i, id, "Task not found with id: " + id));
+                continue;
+            }
+            TaskStatsCache.Bucket before = TaskStatsCache.Bucket.of(task);
+            task.setStatus(status);
+            moves.add(new TaskStatsCache.Bucket[] { before, TaskStatsCache.Bucket.of(task) });
+            updated.add(task);
+            results.add(BatchItemResult.success(i, id, Outcome.UPDATED));
+        }
+        // Dirty checking flushes the changes as batched updates on commit
+        afterCommit(() -> {
+            moves.forEach(move -> statsCache.move(move[0], move[1]));
+            updated.forEach(overdueTracker::track);
+            updated.forEach(task -> textIndex.updateStatus(task.getTenantId(), task.getId(), status));
+            categoryService.evictTaskCounts();
+            changeNotifier.signal();
+            List<TaskEvent> events = new ArrayList<>(updated.size());
+            for (int i = 0; i < updated.size(); i++) {
+                Task task = updated.get(i);
+                TaskStatsCache.Bucket[] move = moves.get(i);
+                events.add(TaskEvent.statusChanged(task.getTenantId(), task.getId(), task.getVersion(), status,
+                    task.getPriority(), move[1].categoryId(), move[0].status()));
+            }
+            eventBroadcaster.publish(events);
+        });
+        return results;
+    }
+    
+    /**
+     * Deletes every listed task with a single bulk delete. Unknown or repeated ids are reported as failures.
+     */
+    public List<BatchItemResult> deleteTasks(List<Long> ids) {
+        checkBatchSize(ids);
+        Map<Long, Task> tasks = findAllByIdAsMap(ids);
+        
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        Set<Long> deleted = new HashSet<>();
+        List<TaskStatsCache.Bucket> buckets = new ArrayList<>(ids.size());
+        List<TaskText> texts = new ArrayList<>(ids.size());
+        List<TaskEvent> events = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Task task = id != null ? tasks.get(id) : null;
+            if (task == null) {
+                results.add(BatchItemResult.failed(i, id, "Task not found with id: " + id));
+            } else if (!deleted.add(id)) {
+                results.add(BatchItemResult.failed(i, id, "Duplicate id in batch: " + id));
+            } else {
+                buckets.add(TaskStatsCache.Bucket.of(task));
+                texts.add(TaskText.of(task));
+                events.add(TaskEvent.deleted(task));
+                results.add(BatchItemResult.success(i, id, Outcome.DELETED));
+            }
+        }
+        if (!deleted.isEmpty()) {
+            taskRepository.deleteAllByIdInBatch(deleted);
+            LocalDateTime now = LocalDateTime.now();
+            tombstoneRepository.saveAll(deleted.stream().map(id -> TaskTombstone.of(tasks.get(id), now)).toList());
         }
-        taskRepository.deleteById(id);
+        afterCommit(() -> {
+            buckets.forEach(statsCache::remove);
+            deleted.forEach(id -> overdueTracker.untrack(tasks.get(id).getTenantId(), id));
+            texts.forEach(textIndex::remove);
+            categoryService.evictTaskCounts();
+            changeNotifier.signal();
+            eventBroadcaster.publish(events);
+        });
+        return results;
+    }
+    
+    /**
+     * Moves up to {@code limit} tasks that are completed or cancelled and were last updated before
+     * {@code cutoff} to the archive, oldest first. Called by {@link TaskArchiver} for all tenants.
+     *
+     * @return the number of tasks moved
+     */
+    public int archiveTasks(LocalDateTime cutoff, int limit) {
+        List<Task> tasks = taskRepository.findArchivable(cutoff, Limit.of(limit));
+        archive(tasks);
+        return tasks.size();
+    }
+    
+    /**
+     * Moves one completed or cancelled task to the archive regardless of its age.
+     *
+     * @return the task as archived
+     */
+    public Task archiveTask(Long id) {
+        Task task = taskRepository.findLockedById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Task not found with id: " + id));
+        if (task.getStatus().isOpen()) {
+            throw new IllegalArgumentException("Only completed or cancelled tasks can be archived");
+        }
+        archive(List.of(task));
+        return archivedTaskRepository.findById(id)
+            .map(ArchivedTask::toTask)
+            .orElseThrow(() -> new IllegalStateException("Archived task " + id + " not found after archiving"));
+    }
+    
+    /**
+     * Moves an archived task back to the tasks table. It comes back with a new version and
+     * modification time, so it shows up in the change feed again.
+     */
+    public Task restoreTask(Long id) {
+        archivedTaskRepository.findLockedById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Archived task not found with id: " + id));
+        List<Long> ids = List.of(id);
+        archivedTaskRepository.copyToTasks(ids, LocalDateTime.now());
+        archivedTaskRepository.deleteAllByIdInBatch(ids);
+        Task task = taskRepository.findById(id)
+            .orElseThrow(() -> new IllegalStateException("Task " + id + " not found after restoring"));
+        TaskStatsCache.Bucket bucket = TaskStatsCache.Bucket.of(task);
+        TaskText text = TaskText.of(task);
+        afterCommit(() -> {
+            statsCache.add(bucket);
+            textIndex.add(text);
+            categoryService.evictTaskCounts();
+            changeNotifier.signal();
+            eventBroadcaster.publish(TaskEvent.restored(task));
+        });
+        return task;
     }
     
+    // Copies the tasks to the archive and deletes them. Nothing is left behind for the change feed:
+    // the tasks still exist, and delta sync clients keep what they have.
+    private void archive(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        List<TaskStatsCache.Bucket> buckets = tasks.stream().map(TaskStatsCache.Bucket::of).toList();
+        List<TaskText> texts = tasks.stream().map(TaskText::of).toList();
+        List<TaskEvent> events = tasks.stream().map(TaskEvent::archived).toList();
+        archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+        taskRepository.deleteAllByIdInBatch(ids);
+        afterCommit(() -> {
+            buckets.forEach(statsCache::remove);
+            texts.forEach(textIndex::remove);
+            // The archiver works across all tenants, where there is no single tenant's entry to evict
+            categoryService.evictAllTaskCounts();
+            eventBroadcaster.publish(events);
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${task-api.changes.purge-interval:PT1H}")
+    @AllTenants
+    public void purgeTombstones() {
+        tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+    }
+    
+    @Transactional(readOnly = true)
     public long getTaskCountByStatus(Status status) {
-        return taskRepository.countByStatus(status);
+        return statsCache.count(status);
+    }
+    
+    @Transactional(readOnly = true)
+    public long getTaskCountByPriority(Priority priority) {
+        return statsCache.count(priority);
+    }
+    
+    /**
+     * Task counts per category id (null for uncategorized), indexed by {@link Status#ordinal()}.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, long[]> getTaskCountsByCategory() {
+        return statsCache.countsByCategory();
+    }
+    
+    /**
+     * Resolves the requested page size, falling back to the default and capping at the maximum.
+     */
+    public int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+    
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + items.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+    }
+    
+    private String validateNewTask(Task task, Map<Long, Category> categories) {
+        if (task == null) {
+            return "Task is required";
+        }
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        }
+        Category category = task.getCategory();
+        if (category != null && category.getId() != null && !categories.containsKey(category.getId())) {
+            return "Category not found with id: " + category.getId();
+        }
+        return null;
+    }
+    
+    private Map<Long, Task> findAllByIdAsMap(List<Long> ids) {
+        Set<Long> distinct = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        return taskRepository.findAllById(distinct).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+    
+    /**
+     * Loads the ids an in-memory index picked and returns the rows found in the order of the ids.
+     * The index can be behind the table, so {@code query} applies the index's predicate again and
+     * rows that no longer match it are left out.
+     */
+    private static <T> List<T> findInOrder(List<Long> ids, Function<List<Long>, List<T>> query, Function<T, Long> id) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> found = query.apply(ids).stream().collect(Collectors.toMap(id, Function.identity()));
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+    
+    /**
+     * A page filled from an in-memory index, which hands out entries in order after a given one. The
+     * index can still list tasks the database no longer matches, which the query leaves out; more
+     * entries are taken after the last one handed out until the page is full or the index runs out.
+     */
+    private static <E, T> List<T> fillFromIndex(int limit, E start, BiFunction<E, Integer, List<E>> next,
+                                                Function<E, Long> entryId, Function<List<Long>, List<T>> query,
+                                                Function<T, Long> id) {
+        List<T> page = new ArrayList<>(limit);
+        E after = start;
+        while (page.size() < limit) {
+            int wanted = limit - page.size();
+            List<E> entries = next.apply(after, wanted);
+            if (entries.isEmpty()) {
+                break;
+            }
+            page.addAll(findInOrder(entries.stream().map(entryId).toList(), query, id));
+            if (entries.size() < wanted) {
+                break;
+            }
+            after = entries.get(entries.size() - 1);
+        }
+        return page;
+    }
+    
+    // Unranked substring match, newest first; only used until the text index is ready
+    private List<Task> scanText(String text, Status status, Priority priority, Long categoryId, int limit) {
+        List<String> terms = InvertedIndex.tokenize(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException(
+                "Query must contain a word of at least " + InvertedIndex.MIN_TERM_LENGTH + " characters");
+        }
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setPriority(priority);
+        criteria.setCategoryId(categoryId);
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        return taskRepository.findBy(TaskSpecifications.matching(criteria).and(TaskSpecifications.containsAllTerms(terms)),
+            query -> query.sortBy(sort).limit(limit).all());
+    }
+    
+    // Merges two pages, each in id order, into one of at most limit items
+    private static <T> List<T> mergeById(List<T> first, List<T> second, Function<T, Long> id, int limit) {
+        List<T> merged = new ArrayList<>(Math.min(first.size() + second.size(), limit));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size() || (i < first.size() && id.apply(first.get(i)) < id.apply(second.get(j)))) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+    
+    private Limit pageLimit(Integer limit) {
+        return Limit.of(resolvePageSize(limit));
+    }
+    
+    // Cached views must only see committed changes, so defer updates until the transaction commits
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static Long cursor(Long afterId) {
+        return afterId != null ? afterId : 0L;
     }
 }
@@ -0,0 +1,201 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.TaskCount;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.repository.TaskRepository;
+import com.example.taskapi.tenant.AllTenants;
+import com.example.taskapi.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory task counts by status, priority and category, kept per tenant, so the stats endpoint
+ * never has to touch the database. {@link TaskService} applies deltas after each commit and a
+ * periodic reconciliation replaces the counters with a fresh grouped count to correct any drift.
+ * Reads return the counts of the current {@link TenantContext} tenant.
+ */
+@Component
+public class TaskStatsCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskStatsCache.class);
+    
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    
+    // Category key used for tasks without a category (ConcurrentHashMap does not allow null keys)
+    private static final long UNCATEGORIZED = 0L;
+    // What tenants without tasks read
+    private static final Snapshot EMPTY = new Snapshot();
+    
+    private final TaskRepository taskRepository;
+    // Counters per tenant; null until the first reconciliation
+    private volatile Map<String, Snapshot> snapshots;
+    
+    @Autowired
+    public TaskStatsCache(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+    
+    /**
+     * The tenant, status, priority and category a task is counted under.
+     */
+    public record Bucket(String tenantId, Status status, Priority priority, Long categoryId) {
+        public static Bucket of(Task task) {
+            return new Bucket(task.getTenantId(), task.getStatus(), task.getPriority(),
+                task.getCategory() != null ? task.getCategory().getId() : null);
+        }
+    }
+    
+    // Deltas arriving before the first reconciliation are dropped; that reconciliation counts them
+    public void add(Bucket bucket) {
+        apply(bucket, 1);
+    }
+    
+    public void remove(Bucket bucket) {
+        apply(bucket, -1);
+    }
+    
+    public void move(Bucket from, Bucket to) {
+        if (!from.equals(to)) {
+            apply(from, -1);
+            apply(to, 1);
+        }
+    }
+    
+    public long count(Status status) {
+        return current().total.count(status);
+    }
+    
+    public long count(Priority priority) {
+        return current().total.count(priority);
+    }
+    
+    public long total() {
+        return current().total.sum();
+    }
+    
+    /**
+     * Per-category counts indexed by {@link Status#ordinal()}. Tasks without a category are
+     * reported under a {@code null} key.
+     */
+    public Map<Long, long[]> countsByCategory() {
+        Map<Long, long[]> result = new TreeMap<>(Comparator.nullsFirst(Long::compare));
+        current().byCategory.forEach((categoryId, counters) -> {
+            long[] byStatus = new long[STATUSES.length];
+            for (Status status : STATUSES) {
+                byStatus[status.ordinal()] = counters.count(status);
+            }
+            result.put(categoryId == UNCATEGORIZED ? null : categoryId, byStatus);
+        });
+        return result;
+    }
+    
+    /**
+     * Rebuilds the counters of every tenant from a single grouped count query. Deltas applied
+     * while the query runs may be lost; the next reconciliation picks them up.
+     */
+    @Scheduled(fixedDelayString = "${task-api.stats.reconcile-interval:PT1M}")
+    @AllTenants
+    public void reconcile() {
+        Map<String, Snapshot> fresh = load();
+        Map<String, Snapshot> previous = snapshots;
+        snapshots = fresh;
+        if (previous != null) {
+            long before = previous.values().stream().mapToLong(counters -> counters.total.sum()).sum();
+            long after = fresh.values().stream().mapToLong(counters -> counters.total.sum()).sum();
+            if (before != after) {
+                log.debug("Task stats drifted: cached total {}, database total {}", before, after);
+            }
+        }
+    }
+    
+    // Deltas for a tenant the last reconciliation did not see start from zero, which is what it counted
+    private void apply(Bucket bucket, long delta) {
+        Map<String, Snapshot> counters = snapshots;
+        if (counters != null) {
+            counters.computeIfAbsent(bucket.tenantId(), tenant -> new Snapshot()).add(bucket, delta);
+        }
+    }
+    
+    // Before the first reconciliation, counts are taken from the database within the caller's tenant
+    private Snapshot current() {
+        Map<String, Snapshot> counters = snapshots;
+        if (counters == null) {
+            counters = load();
+        }
+        return counters.getOrDefault(TenantContext.current(), EMPTY);
+    }
+    
+    private Map<String, Snapshot> load() {
+        Map<String, Snapshot> fresh = new ConcurrentHashMap<>();
+        for (TaskCount row : taskRepository.countGroupedByStatusPriorityAndCategory()) {
+            Bucket bucket = new Bucket(row.getTenantId(), row.getStatus(), row.getPriority(), row.getCategoryId());
+            fresh.computeIfAbsent(row.getTenantId(), tenant -> new Snapshot()).add(bucket, row.getCount());
+        }
+        return fresh;
+    }
+    
+    private static final class Snapshot {
+        private final Counters total = new Counters();
+        private final ConcurrentHashMap<Long, Counters> byCategory = new ConcurrentHashMap<>();
+        
+        void add(Bucket bucket, long delta) {
+            long key = bucket.categoryId() != null ? bucket.categoryId() : UNCATEGORIZED;
+            total.add(bucket, delta);
+            byCategory.computeIfAbsent(key, k -> new Counters()).add(bucket, delta);
+        }
+    }
+    
+    /**
+     * One {@link LongAdder} per status x priority cell, indexed by enum ordinals.
+     */
+    private static final class Counters {
+        private final LongAdder[] cells = new LongAdder[STATUSES.length * PRIORITIES.length];
+        
+        Counters() {
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = new LongAdder();
+            }
+        }
+        
+        void add(Bucket bucket, long delta) {
+            cells[bucket.status().ordinal() * PRIORITIES.length + bucket.priority().ordinal()].add(delta);
+        }
+        
+        long count(Status status) {
+            long sum = 0;
+            int offset = status.ordinal() * PRIORITIES.length;
+            for (int i = 0; i < PRIORITIES.length; i++) {
+                sum += cells[offset + i].sum();
+            }
+            return sum;
+        }
+        
+        long count(Priority priority) {
+            long sum = 0;
+            for (int i = priority.ordinal(); i < cells.length; i += PRIORITIES.length) {
+                sum += cells[i].sum();
+            }
+            return sum;
+        }
+        
+        long sum() {
+            long sum = 0;
+            for (LongAdder cell : cells) {
+                sum += cell.sum();
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.datasource.ReadFromPrimary;
+import com.example.taskapi.dto.TaskText;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.repository.TaskRepository;
+import com.example.taskapi.tenant.AllTenants;
+import com.example.taskapi.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index of task titles and descriptions backing {@code GET /api/tasks/search/text}.
+ * There is one index per tenant and searches use the current {@link TenantContext} tenant's.
+ * Built by streaming the tasks table at startup; {@link TaskService} applies each change after
+ * it commits and a periodic rebuild picks up anything written behind the service's back.
+ */
+@Component
+public class TaskTextIndex {
+    
+    private static final InvertedIndex EMPTY = new InvertedIndex();
+    
+    private final TaskRepository taskRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Index per tenant; null until the first rebuild completes, callers falling back to the
+    // database until then (guarded by lock)
+    private Map<String, InvertedIndex> indexes;
+    // Changes applied while a rebuild is running, replayed onto the rebuilt indexes (guarded by lock)
+    private List<Consumer<Map<String, InvertedIndex>>> journal;
+    
+    @Autowired
+    public TaskTextIndex(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+    
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return indexes != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void add(TaskText task) {
+        apply(task.tenantId(), index -> index.put(null, task));
+    }
+    
+    public void update(TaskText before, TaskText after) {
+        apply(after.tenantId(), index -> index.put(before, after));
+    }
+    
+    public void updateStatus(String tenant, Long id, Status status) {
+        apply(tenant, index -> index.updateStatus(id, status));
+    }
+    
+    public void remove(TaskText before) {
+        apply(before.tenantId(), index -> index.remove(before));
+    }
+    
+    /**
+     * Ids of the best matching tasks, most relevant first.
+     */
+    public List<Long> search(String query, Status status, Priority priority, Long categoryId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (indexes == null) {
+                throw new IllegalStateException("Text index has not been built yet");
+            }
+            // A tenant without tasks has no index; an empty one still validates the query
+            InvertedIndex index = indexes.getOrDefault(TenantContext.current(), EMPTY);
+            return index.search(query, status, priority, categoryId, limit).stream()
+                .map(InvertedIndex.Hit::id)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${task-api.text-index.rebuild-interval:PT30M}")
+    @AllTenants
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Built off to the side so searches keep using the current index meanwhile
+        Map<String, InvertedIndex> fresh = new HashMap<>();
+        try (Stream<TaskText> rows = taskRepository.streamTaskTexts()) {
+            rows.forEach(row -> fresh.computeIfAbsent(row.tenantId(), tenant -> new InvertedIndex()).put(null, row));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            journal.forEach(change -> change.accept(fresh));
+            journal = null;
+            indexes = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void apply(String tenant, Consumer<InvertedIndex> update) {
+        Consumer<Map<String, InvertedIndex>> change =
+            indexes -> update.accept(indexes.computeIfAbsent(tenant, t -> new InvertedIndex()));
+        lock.writeLock().lock();
+        try {
+            if (indexes != null) {
+                change.accept(indexes);
+            }
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
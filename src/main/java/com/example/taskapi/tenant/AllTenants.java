@@ -0,0 +1,19 @@
+package com.example.taskapi.tenant;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method across all tenants: sessions it opens are not restricted to a
+ * tenant. For the scheduled jobs that rebuild or maintain data of every tenant at once. Takes
+ * effect outside the method's transaction, so it must be called through the Spring proxy and not
+ * from inside a session that is already open, such as a web request's.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AllTenants {
+}
@@ -0,0 +1,25 @@
+package com.example.taskapi.tenant;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds all tenants around methods marked {@link AllTenants}. Ordered ahead of the transaction
+ * interceptor so the session the transaction opens is already unrestricted.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AllTenantsAspect {
+    
+    @Around("@annotation(com.example.taskapi.tenant.AllTenants)")
+    public Object acrossAllTenants(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (TenantContext.Scope ignored = TenantContext.enterAllTenants()) {
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.taskapi.tenant;
+
+import java.util.regex.Pattern;
+
+/**
+ * The tenant the current thread works for. Hibernate opens each session for this tenant, so
+ * {@code @TenantId} entities are read and written for it only. Request threads get it from
+ * {@link com.example.taskapi.web.TenantFilter}; other threads that act for a tenant bind it with
+ * {@link #enter(String)}. Threads with nothing bound work for {@link #DEFAULT_TENANT}, and only
+ * those inside {@link #enterAllTenants()} (or a method marked {@link AllTenants}) see every tenant.
+ */
+public final class TenantContext {
+    
+    // Rows that existed before tenants were introduced belong to this tenant (see V2__tenants.sql)
+    public static final String DEFAULT_TENANT = "default";
+    // Hibernate's root tenant: sessions opened for it are not restricted to a tenant
+    static final String ALL_TENANTS = "*";
+    
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0,63}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    
+    private TenantContext() {
+    }
+    
+    /**
+     * The bound tenant, or the default tenant when none is bound. Inside {@link #enterAllTenants()}
+     * there is no single tenant and this throws.
+     */
+    public static String current() {
+        String tenant = CURRENT.get();
+        if (ALL_TENANTS.equals(tenant)) {
+            throw new IllegalStateException("No single tenant is bound while working across all tenants");
+        }
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+    
+    public static boolean isValid(String tenant) {
+        return tenant != null && VALID_TENANT.matcher(tenant).matches();
+    }
+    
+    /**
+     * Binds {@code tenant} to this thread until the returned scope is closed, which restores
+     * whatever was bound before.
+     */
+    public static Scope enter(String tenant) {
+        if (!isValid(tenant)) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenant);
+        }
+        return bind(tenant);
+    }
+    
+    public static Scope enterAllTenants() {
+        return bind(ALL_TENANTS);
+    }
+    
+    // What Hibernate opens sessions for
+    static String sessionTenant() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+    
+    private static Scope bind(String tenant) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+    
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
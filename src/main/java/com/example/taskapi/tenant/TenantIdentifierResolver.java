@@ -0,0 +1,37 @@
+package com.example.taskapi.tenant;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Opens every Hibernate session for the thread's {@link TenantContext} tenant. Entities with a
+ * {@code @TenantId} attribute are then filtered by it in queries and stamped with it on insert.
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver, HibernatePropertiesCustomizer {
+    
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.sessionTenant();
+    }
+    
+    // Sessions are not reused across threads, so an open one never needs to be checked again
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+    
+    @Override
+    public boolean isRoot(String tenantIdentifier) {
+        return TenantContext.ALL_TENANTS.equals(tenantIdentifier);
+    }
+    
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
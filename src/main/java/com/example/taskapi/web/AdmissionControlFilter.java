@@ -0,0 +1,116 @@
+package com.example.taskapi.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests executing at once. With virtual threads every request gets its
+ * own thread, so without this limit a burst would pile up on the connection pool instead of
+ * being turned away early. Requests that cannot get a permit within the wait timeout receive 503.
+ *
+ * <p>A request that goes async, such as the export, keeps its permit until the async processing
+ * completes, since it goes on using a thread and a connection. Long polls and event streams are
+ * the exception: they mostly wait with neither, so their permit is released once the request
+ * thread returns, and an event stream open for hours does not hold one.
+ */
+@Component
+@ConditionalOnProperty(name = "task-api.admission.enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private final Semaphore permits;
+    private final long waitMillis;
+    private final Counter rejected;
+    
+    public AdmissionControlFilter(
+            MeterRegistry registry,
+            @Value("${task-api.admission.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrentRequests,
+            @Value("${task-api.admission.wait-timeout:PT2S}") Duration waitTimeout) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.waitMillis = waitTimeout.toMillis();
+        this.rejected = Counter.builder("api.requests.rejected")
+            .description("API requests turned away before reaching a controller")
+            .tag("reason", "busy")
+            .register(registry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.equals("/api/health");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is busy, please retry\"}");
+            return;
+        }
+        boolean released = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted() && !isWaiting(request)) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                permits.release();
+            }
+        }
+    }
+    
+    private static boolean isWaiting(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.equals("/api/tasks/events") || (path.equals("/api/tasks/changes") && request.getParameter("wait") != null);
+    }
+    
+    // Fires once however the async processing ends, including after a timeout or an error
+    private class ReleaseOnComplete implements AsyncListener {
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.taskapi.web;
+
+import com.example.taskapi.dto.TaskState;
+import com.example.taskapi.dto.TaskSummary;
+import com.example.taskapi.model.Category;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.service.PreconditionFailedException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+
+/**
+ * Computes ETag and Last-Modified values from ids, versions and modification times alone, so
+ * conditional requests can be answered without serializing the body. A task's tag has the form
+ * {@code <id>-<version>[-<categoryId>.<categoryVersion>]}: it covers the embedded category, and the
+ * second segment is the version an {@code If-Match} header asks a write to apply to.
+ *
+ * <p>Tags of lists are weak: they are only ever compared through {@code If-None-Match}, and Tomcat
+ * does not compress responses with a strong tag, since the compressed body is not byte-identical.
+ */
+public final class EntityTags {
+    
+    private EntityTags() {
+    }
+    
+    public static String of(Task task) {
+        Category category = task.getCategory();
+        return tag(task.getId(), task.getVersion(),
+            category != null ? category.getId() : null, category != null ? category.getVersion() : null);
+    }
+    
+    public static String of(TaskState state) {
+        return tag(state.id(), state.version(), state.categoryId(), state.categoryVersion());
+    }
+    
+    public static String of(Category category) {
+        return tag(category.getId(), category.getVersion(), null, null);
+    }
+    
+    /**
+     * The version of resource {@code id} named by an {@code If-Match} header, or null when the
+     * header is absent or {@code *}. {@code If-Match} compares strongly, so weak tags never match,
+     * and neither do tags of another resource or tags that are not ours: without a tag for this
+     * resource the precondition fails.
+     */
+    public static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/") || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String[] segments = tag.substring(1, tag.length() - 1).split("-");
+            if (segments.length >= 2 && segments[0].equals(String.valueOf(id))) {
+                try {
+                    return Long.parseLong(segments[1]);
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current version");
+    }
+    
+    public static String of(Collection<Task> tasks) {
+        long hash = 1125899906842597L;
+        for (Task task : tasks) {
+            hash = 31 * hash + task.getId();
+            hash = 31 * hash + stamp(task);
+        }
+        return weak(tasks.size() + "-" + Long.toHexString(hash));
+    }
+    
+    public static String ofSummaries(Collection<TaskSummary> summaries) {
+        long hash = 1125899906842597L;
+        for (TaskSummary summary : summaries) {
+            hash = 31 * hash + summary.id();
+            hash = 31 * hash + micros(summary.updatedAt());
+            hash = 31 * hash + (summary.categoryId() != null ? summary.categoryId() : 0);
+            hash = 31 * hash + (summary.categoryName() != null ? summary.categoryName().hashCode() : 0);
+        }
+        // Distinct prefix so a summary page never matches the tag of the same page in full view
+        return weak("s" + summaries.size() + "-" + Long.toHexString(hash));
+    }
+    
+    public static long lastModified(Task task) {
+        LocalDateTime latest = task.getUpdatedAt();
+        Category category = task.getCategory();
+        if (category != null && category.getUpdatedAt() != null
+                && (latest == null || category.getUpdatedAt().isAfter(latest))) {
+            latest = category.getUpdatedAt();
+        }
+        return latest == null ? -1 : latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static String tag(Long id, Long version, Long categoryId, Long categoryVersion) {
+        String tag = id + "-" + version;
+        return categoryId != null ? tag + "-" + categoryId + "." + categoryVersion : tag;
+    }
+    
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+    
+    private static long stamp(Task task) {
+        long stamp = task.getVersion() != null ? task.getVersion() : micros(task.getUpdatedAt());
+        Category category = task.getCategory();
+        if (category != null) {
+            stamp = 31 * stamp + category.getId();
+            stamp = 31 * stamp + (category.getVersion() != null ? category.getVersion() : 0);
+        }
+        return stamp;
+    }
+    
+    private static long micros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond() * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.taskapi.web;
+
+import com.example.taskapi.dto.IdempotentResponse;
+import com.example.taskapi.service.IdempotencyConflictException;
+import com.example.taskapi.service.IdempotencyStore;
+import com.example.taskapi.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs task and category creation and the batch endpoints at most once per {@code Idempotency-Key}.
+ * The first request with a key runs as usual and its response is stored; retries with the same
+ * key and body get that response again, marked {@code Idempotent-Replayed: true}, without reaching
+ * the controller. Only successful responses are stored; after any other the key is free again.
+ * A retry that arrives while the first request is still running waits for its response, up to
+ * the wait timeout, and gets 409 after that. Reusing a key with a different body
+ * is answered with 422. Keys are scoped to the tenant, method and path.
+ */
+@Component
+@Order(3)
+@ConditionalOnProperty(name = "task-api.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String REPLAYED = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> ENDPOINTS = Set.of(
+        "POST /api/tasks", "POST /api/tasks/async", "POST /api/tasks/batch", "PATCH /api/tasks/batch/status",
+        "DELETE /api/tasks/batch", "POST /api/categories");
+    // Describe the connection or this particular transfer, and are set again when a response is replayed
+    private static final Set<String> TRANSFER_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    
+    static {
+        TRANSFER_HEADERS.addAll(List.of(HttpHeaders.DATE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION, "Keep-Alive"));
+    }
+    
+    private final IdempotencyStore store;
+    private final long waitNanos;
+    private final Counter replayed;
+    
+    public IdempotencyFilter(IdempotencyStore store, MeterRegistry registry,
+                             @Value("${task-api.idempotency.wait-timeout:PT30S}") Duration waitTimeout) {
+        this.store = store;
+        this.waitNanos = waitTimeout.toNanos();
+        this.replayed = Counter.builder("api.requests.replayed")
+            .description("Requests answered with the stored response to an earlier request with the same Idempotency-Key")
+            .register(registry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(IDEMPOTENCY_KEY) == null
+            || !ENDPOINTS.contains(request.getMethod() + " " + request.getRequestURI());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            error(response, HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = sha256(body);
+        String key = sha256((TenantContext.current() + "\n" + request.getMethod() + " " + request.getRequestURI()
+            + "\n" + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        long deadline = System.nanoTime() + waitNanos;
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint, deadline);
+            if (claim.owner()) {
+                execute(claim, fingerprint, new CachedBodyRequest(request, body), response, chain);
+                return;
+            }
+            IdempotentResponse stored;
+            try {
+                stored = claim.response().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                error(response, HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY + " is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error(response, HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY + " is still in progress");
+                return;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IdempotencyConflictException) {
+                    error(response, HttpStatus.CONFLICT, e.getCause().getMessage());
+                    return;
+                }
+                // The request that held the key did not succeed and gave it up; try to run this one instead
+                continue;
+            }
+            if (!stored.fingerprint().equals(fingerprint)) {
+                error(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY + " was already used for a request with a different body");
+                return;
+            }
+            replay(stored, response);
+            return;
+        }
+    }
+    
+    private void execute(IdempotencyStore.Claim claim, String fingerprint, HttpServletRequest request,
+                         HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, captured);
+        } catch (ServletException | IOException | RuntimeException e) {
+            store.release(claim, e);
+            throw e;
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : captured.getHeaderNames()) {
+            if (!TRANSFER_HEADERS.contains(name)) {
+                headers.put(name, new ArrayList<>(captured.getHeaders(name)));
+            }
+        }
+        if (captured.getContentType() != null) {
+            headers.putIfAbsent(HttpHeaders.CONTENT_TYPE, List.of(captured.getContentType()));
+        }
+        store.complete(claim, new IdempotentResponse(fingerprint, captured.getStatus(), headers,
+            captured.getContentAsByteArray()));
+        captured.copyBodyToResponse();
+    }
+    
+    private void replay(IdempotentResponse stored, HttpServletResponse response) throws IOException {
+        replayed.increment();
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+    
+    private static void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+    
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    // Serves the body read up front to the controller
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("The body has already been read");
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.taskapi.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Turns away a share of API requests with {@code 503} and {@code Retry-After} while the server is
+ * overloaded, so that the requests it does accept still finish in reasonable time. After each
+ * window, the mean latency of the requests completed in it and the mean wait for a pooled
+ * connection are compared with their limits: the share goes up by a tenth while either is over
+ * and halves once both are back under. It never reaches all requests, so latency keeps being
+ * measured while shedding.
+ *
+ * <p>Streaming and long-polling requests are not timed, since they are slow by design.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "task-api.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoadSheddingFilter.class);
+    
+    private static final double STEP = 0.1;
+    private static final double MAX_SHARE = 0.9;
+    
+    private final MeterRegistry registry;
+    private final long maxLatencyNanos;
+    private final long maxConnectionWaitNanos;
+    private final long minRequests;
+    private final long windowNanos;
+    private final String retryAfter;
+    private final Counter rejected;
+    
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    // Whoever sets this closes the window; everything below it is only touched while it is set
+    private final AtomicBoolean sampling = new AtomicBoolean();
+    private volatile long windowEnd;
+    private volatile double share;
+    private long acquires;
+    private double acquireNanos;
+    
+    public LoadSheddingFilter(MeterRegistry registry,
+                              @Value("${task-api.load-shedding.max-latency:PT1S}") Duration maxLatency,
+                              @Value("${task-api.load-shedding.max-connection-wait:PT0.2S}") Duration maxConnectionWait,
+                              @Value("${task-api.load-shedding.min-requests:20}") long minRequests,
+                              @Value("${task-api.load-shedding.window:PT1S}") Duration window) {
+        this.registry = registry;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.maxConnectionWaitNanos = maxConnectionWait.toNanos();
+        this.minRequests = minRequests;
+        this.windowNanos = window.toNanos();
+        this.retryAfter = Long.toString(Math.max(1, window.toSeconds()));
+        this.windowEnd = System.nanoTime() + windowNanos;
+        this.rejected = Counter.builder("api.requests.rejected")
+            .description("API requests turned away before reaching a controller")
+            .tag("reason", "overloaded")
+            .register(registry);
+        Gauge.builder("api.load.shed.share", this, filter -> filter.share)
+            .description("Share of API requests currently turned away because the server is overloaded")
+            .register(registry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.equals("/api/health");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        if (started - windowEnd >= 0 && sampling.compareAndSet(false, true)) {
+            try {
+                closeWindow(started);
+            } finally {
+                sampling.set(false);
+            }
+        }
+        double current = share;
+        if (current > 0 && ThreadLocalRandom.current().nextDouble() < current) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", retryAfter);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is overloaded, please retry\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                requests.increment();
+                latencyNanos.add(System.nanoTime() - started);
+            }
+        }
+    }
+    
+    private void closeWindow(long now) {
+        long count = requests.sumThenReset();
+        long latency = latencyNanos.sumThenReset();
+        double meanLatency = count >= minRequests ? (double) latency / count : 0;
+        
+        // Every pool's acquire timer, so the replicas count too
+        long totalAcquires = 0;
+        double totalAcquireNanos = 0;
+        for (Timer timer : registry.find("hikaricp.connections.acquire").timers()) {
+            totalAcquires += timer.count();
+            totalAcquireNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        double meanWait = totalAcquires > acquires ? (totalAcquireNanos - acquireNanos) / (totalAcquires - acquires) : 0;
+        acquires = totalAcquires;
+        acquireNanos = totalAcquireNanos;
+        
+        double previous = share;
+        boolean overloaded = meanLatency > maxLatencyNanos || meanWait > maxConnectionWaitNanos;
+        double next = overloaded ? Math.min(MAX_SHARE, previous + STEP) : previous / 2 < STEP / 2 ? 0 : previous / 2;
+        share = next;
+        windowEnd = now + windowNanos;
+        if (previous == 0 && next > 0) {
+            log.warn("Shedding load: mean request latency {} ms, mean connection wait {} ms",
+                (long) meanLatency / 1_000_000, (long) meanWait / 1_000_000);
+        } else if (previous > 0 && next == 0) {
+            log.info("Stopped shedding load");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.taskapi.web;
+
+import com.example.taskapi.metrics.RequestQueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements and entity loads each API request caused, as the
+ * {@code http.server.requests.sql.statements} and {@code http.server.requests.entity.loads}
+ * summaries tagged by method and URI pattern. Requests above the warning threshold are logged.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+    
+    private final MeterRegistry registry;
+    private final long warnThreshold;
+    
+    public QueryCountFilter(MeterRegistry registry,
+                            @Value("${task-api.metrics.sql-statements-warn-threshold:20}") long warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryCounter.Counts counts = RequestQueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            summary("http.server.requests.sql.statements", "statements", request.getMethod(), uri)
+                .record(counts.getStatements());
+            summary("http.server.requests.entity.loads", "entities", request.getMethod(), uri)
+                .record(counts.getEntityLoads());
+            if (counts.getStatements() > warnThreshold) {
+                log.warn("{} {} executed {} SQL statements and loaded {} entities",
+                    request.getMethod(), request.getRequestURI(), counts.getStatements(), counts.getEntityLoads());
+            }
+        }
+    }
+    
+    private DistributionSummary summary(String name, String unit, String method, String uri) {
+        return DistributionSummary.builder(name)
+            .baseUnit(unit)
+            .tag("method", method)
+            .tag("uri", uri)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+    }
+}
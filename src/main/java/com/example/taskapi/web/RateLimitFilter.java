@@ -0,0 +1,249 @@
+package com.example.taskapi.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Limits each client to a sustained rate of tokens per second with bursts up to the configured
+ * size, answering {@code 429} with {@code Retry-After} once a client runs out.
+ * Requests cost tokens by how much work they cause: one for a single task or category, more for
+ * writes, more again for list and search reads, and most for batch operations and the export.
+ *
+ * <p>Buckets use the generic cell rate algorithm: a bucket is one timestamp, the time at which it
+ * would be full again, advanced with a compare-and-set, so clients never contend on a lock. They
+ * are kept in a bounded cache and dropped once idle long enough to have refilled.
+ *
+ * <p>A client is its address, unless the request came from one of the trusted proxies: then it is
+ * the address those proxies recorded in {@code X-Forwarded-For}, read from the right and skipping
+ * the proxies' own, or the client identity the gateway put in the configured header. Headers of
+ * requests that did not come through a trusted proxy are ignored, so clients cannot pick their
+ * own bucket. No proxy is trusted unless configured.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "task-api.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    // Loopback and private networks, where a gateway in front of the service usually sits
+    private static final Pattern SINGLE_RESOURCE = Pattern.compile("/api/(tasks|categories)/\\d+|/api/tasks/async/[^/]+");
+    
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int burst;
+    private final int listCost;
+    private final int writeCost;
+    private final int bulkCost;
+    private final List<AddressRange> trustedProxies;
+    private final String clientHeader;
+    private final Cache<String, AtomicLong> buckets;
+    private final Counter rejected;
+    
+    public RateLimitFilter(MeterRegistry registry,
+                           @Value("${task-api.rate-limit.rate:50}") double rate,
+                           @Value("${task-api.rate-limit.burst:100}") int burst,
+                           @Value("${task-api.rate-limit.list-cost:5}") int listCost,
+                           @Value("${task-api.rate-limit.write-cost:2}") int writeCost,
+                           @Value("${task-api.rate-limit.bulk-cost:25}") int bulkCost,
+                           @Value("${task-api.rate-limit.max-clients:100000}") long maxClients,
+                           @Value("${task-api.rate-limit.trusted-proxies:}") List<String> trustedProxies,
+                           @Value("${task-api.rate-limit.client-header:}") String clientHeader) {
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.burstNanos = burst * nanosPerToken;
+        this.burst = burst;
+        this.listCost = listCost;
+        this.writeCost = writeCost;
+        this.bulkCost = bulkCost;
+        this.trustedProxies = trustedProxies.stream().filter(range -> !range.isBlank()).map(AddressRange::parse).toList();
+        this.clientHeader = clientHeader.isBlank() ? null : clientHeader;
+        // A bucket left alone this long is full again, the same as a new one
+        this.buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofNanos(Math.max(burstNanos, TimeUnit.SECONDS.toNanos(1))))
+            .maximumSize(maxClients)
+            .build();
+        this.rejected = Counter.builder("api.requests.rejected")
+            .description("API requests turned away before reaching a controller")
+            .tag("reason", "rate_limited")
+            .register(registry);
+        Gauge.builder("api.rate.limit.clients", buckets, Cache::estimatedSize)
+            .description("Clients with a rate limit bucket")
+            .register(registry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.equals("/api/health");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = acquire(client(request), cost(request));
+        if (waitNanos > 0) {
+            rejected.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", Long.toString(Math.max(1, ceilSeconds(waitNanos))));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, please slow down\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    String client(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!isTrustedProxy(address)) {
+            return address;
+        }
+        if (clientHeader != null) {
+            String identity = request.getHeader(clientHeader);
+            if (identity != null && !identity.isBlank()) {
+                // Kept apart from addresses, so an identity never shares a bucket with an address
+                return "id:" + identity.trim();
+            }
+        }
+        List<String> forwarded = new ArrayList<>();
+        for (Enumeration<String> headers = request.getHeaders(FORWARDED_FOR); headers.hasMoreElements(); ) {
+            for (String hop : headers.nextElement().split(",")) {
+                if (!hop.isBlank()) {
+                    forwarded.add(hop.trim());
+                }
+            }
+        }
+        // Each proxy appends the address it was connected from; the first one not ours is the client
+        for (int i = forwarded.size() - 1; i >= 0; i--) {
+            address = forwarded.get(i);
+            if (!isTrustedProxy(address)) {
+                return address;
+            }
+        }
+        return address;
+    }
+    
+    private boolean isTrustedProxy(String address) {
+        if (trustedProxies.isEmpty()) {
+            return false;
+        }
+        byte[] bytes = AddressRange.literal(address);
+        return bytes != null && trustedProxies.stream().anyMatch(range -> range.contains(bytes));
+    }
+    
+    /**
+     * Takes the tokens from the client's bucket and returns 0, or returns how long the client has
+     * to wait before the bucket holds enough of them, leaving it untouched.
+     */
+    private long acquire(String client, int cost) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(now));
+        long increment = cost * nanosPerToken;
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + increment;
+            long over = next - now - burstNanos;
+            if (over > 0) {
+                return over;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    // Capped at the burst size, so that no request is out of reach of a client that waits
+    private int cost(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        boolean read = method.equals("GET") || method.equals("HEAD");
+        int cost;
+        if (path.startsWith("/api/tasks/batch") || (read && path.equals("/api/tasks/export"))) {
+            cost = bulkCost;
+        } else if (!read) {
+            cost = writeCost;
+        } else if (SINGLE_RESOURCE.matcher(path).matches() || path.equals("/api/tasks/events")) {
+            cost = 1;
+        } else {
+            cost = listCost;
+        }
+        return Math.min(cost, burst);
+    }
+    
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+    
+    // An address or a CIDR range of IPv4 or IPv6 addresses
+    record AddressRange(byte[] network, int prefixLength) {
+        
+        private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+        private static final Pattern IPV6 = Pattern.compile("[0-9A-Fa-f:.]*:[0-9A-Fa-f:.]*");
+        
+        static AddressRange parse(String range) {
+            String[] parts = range.trim().split("/", 2);
+            byte[] network = literal(parts[0]);
+            if (network == null) {
+                throw new IllegalArgumentException("Not an IP address or CIDR range: " + range);
+            }
+            int prefixLength = parts.length == 2 ? Integer.parseInt(parts[1]) : network.length * 8;
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length in " + range);
+            }
+            return new AddressRange(network, prefixLength);
+        }
+        
+        // The address's bytes, or null when it is not an IP address literal; never looks a name up
+        static byte[] literal(String address) {
+            if (!IPV4.matcher(address).matches() && !IPV6.matcher(address).matches()) {
+                return null;
+            }
+            try {
+                return InetAddress.getByName(address).getAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+        
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.taskapi.web;
+
+import com.example.taskapi.dto.TaskEvent;
+import com.example.taskapi.service.TaskEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Writes broadcaster events to a server-sent events response. Each event is named after its type
+ * ({@code created}, {@code updated}, {@code status_changed}, {@code deleted}) and carries its id,
+ * so a reconnecting {@code EventSource} resumes with {@code Last-Event-ID}.
+ */
+public class SseEventSink implements TaskEventBroadcaster.Sink {
+    
+    private final SseEmitter emitter;
+    
+    public SseEventSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+    
+    @Override
+    public void event(long id, TaskEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+            .id(String.valueOf(id))
+            .name(event.type().name().toLowerCase(Locale.ROOT))
+            .data(event, MediaType.APPLICATION_JSON));
+    }
+    
+    @Override
+    public void reset(long resetId) throws IOException {
+        emitter.send(SseEmitter.event()
+            .id(String.valueOf(resetId))
+            .name("reset")
+            .data("Events were dropped; resync from /api/tasks/changes"));
+    }
+    
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keepalive"));
+    }
+    
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.taskapi.web;
+
+import com.example.taskapi.tenant.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the tenant named by the tenant header to API requests, or the default tenant when the
+ * header is absent. Runs before open-in-view opens the request's session, which then stays
+ * scoped to that tenant. {@code /api/health} reports on the whole database and runs across all tenants.
+ * Ordered ahead of {@link IdempotencyFilter}, whose keys are scoped to the tenant.
+ */
+@Component
+@Order(2)
+public class TenantFilter extends OncePerRequestFilter {
+    
+    private final String header;
+    
+    public TenantFilter(@Value("${task-api.tenancy.header:X-Tenant-Id}") String header) {
+        this.header = header;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getRequestURI().equals("/api/health")) {
+            try (TenantContext.Scope ignored = TenantContext.enterAllTenants()) {
+                chain.doFilter(request, response);
+            }
+            return;
+        }
+        String tenant = request.getHeader(header);
+        if (tenant == null) {
+            tenant = TenantContext.DEFAULT_TENANT;
+        } else if (!TenantContext.isValid(tenant)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"" + header + " must be 1-64 letters, digits, '.', '_' or '-'\"}");
+            return;
+        }
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Indexes for the combined task search and the status, priority, category and overdue queries
+
+CREATE INDEX idx_tasks_status_priority ON tasks (status, priority);
+CREATE INDEX idx_tasks_category_status ON tasks (category_id, status);
+CREATE INDEX idx_tasks_due_date_status ON tasks (due_date, status);
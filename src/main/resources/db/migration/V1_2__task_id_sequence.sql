@@ -0,0 +1,4 @@
+-- Task ids drawn from a sequence 50 at a time, so batch inserts need one round trip per 50 rows. The identity
+-- default on tasks.id stays in place, unused. V2 drops the sequence again before the application draws from it.
+
+CREATE SEQUENCE tasks_seq START WITH 1 INCREMENT BY 50;
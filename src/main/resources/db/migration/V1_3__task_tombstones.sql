@@ -0,0 +1,14 @@
+-- Delta sync: tasks changed after a point are found by (updated_at, id), deletions through the tombstones they leave
+
+CREATE INDEX idx_tasks_updated_at_id ON tasks (updated_at, id);
+
+CREATE SEQUENCE task_tombstones_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE task_tombstones (
+    id BIGINT NOT NULL,
+    task_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_task_tombstones_deleted_at ON task_tombstones (deleted_at);
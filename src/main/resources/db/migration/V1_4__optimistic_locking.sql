@@ -0,0 +1,4 @@
+-- Version columns for optimistic locking and If-Match; existing rows start at version 0
+
+ALTER TABLE categories ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tasks ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
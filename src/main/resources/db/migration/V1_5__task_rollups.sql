@@ -0,0 +1,29 @@
+-- Hourly analytics rollups. Tombstones keep the creation and completion times of deleted tasks, so the rollups can
+-- take them back out of the hours they were counted in.
+
+CREATE INDEX idx_tasks_created_at ON tasks (created_at);
+CREATE INDEX idx_tasks_completed_at ON tasks (completed_at);
+
+ALTER TABLE task_tombstones ADD COLUMN task_created_at TIMESTAMP(6);
+ALTER TABLE task_tombstones ADD COLUMN task_completed_at TIMESTAMP(6);
+
+CREATE SEQUENCE task_rollups_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE task_rollups (
+    id BIGINT NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    priority VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    category_id BIGINT,
+    created_count BIGINT NOT NULL,
+    completed_count BIGINT NOT NULL,
+    cycle_time_seconds BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_task_rollups_bucket_start ON task_rollups (bucket_start);
+
+CREATE TABLE task_rollup_state (
+    id INTEGER NOT NULL,
+    refreshed_through TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
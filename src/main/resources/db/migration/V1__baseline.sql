@@ -0,0 +1,27 @@
+-- Schema of the first release, as its ddl-auto=update created it. Written in SQL that both H2 and PostgreSQL accept.
+-- Databases created by that release are baselined at this version instead of running it
+-- (spring.flyway.baseline-on-migrate); the migrations after it then bring them up to date.
+
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tasks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    priority VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    category_id BIGINT,
+    due_date TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
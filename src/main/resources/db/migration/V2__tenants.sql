@@ -0,0 +1,46 @@
+-- Tenants. Rows that existed before belong to the 'default' tenant. Category and task ids are generated by the
+-- application from now on; the identity left on categories.id by V1 is recreated away with the table.
+
+ALTER TABLE tasks DROP CONSTRAINT fk_tasks_category;
+
+-- Recreated rather than altered: the old unique constraint on name has a different generated name on each database
+CREATE TABLE categories_v2 (
+    id BIGINT NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_tenant_name UNIQUE (tenant_id, name)
+);
+
+INSERT INTO categories_v2 (id, tenant_id, name, description, created_at, updated_at, version)
+SELECT id, 'default', name, description, created_at, updated_at, version FROM categories;
+
+DROP TABLE categories;
+ALTER TABLE categories_v2 RENAME TO categories;
+
+-- The default only fills existing rows; the application always writes the tenant
+ALTER TABLE tasks ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE tasks ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE tasks ADD CONSTRAINT fk_tasks_category FOREIGN KEY (category_id) REFERENCES categories (id);
+
+-- Every tenant's query filters on tenant_id, so the indexes those queries use lead with it
+DROP INDEX idx_tasks_status_priority;
+DROP INDEX idx_tasks_due_date_status;
+CREATE INDEX idx_tasks_tenant_id ON tasks (tenant_id, id);
+CREATE INDEX idx_tasks_status_priority ON tasks (tenant_id, status, priority);
+CREATE INDEX idx_tasks_due_date_status ON tasks (tenant_id, due_date, status);
+CREATE INDEX idx_tasks_tenant_updated_at_id ON tasks (tenant_id, updated_at, id);
+
+ALTER TABLE task_tombstones ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE task_tombstones ALTER COLUMN tenant_id DROP DEFAULT;
+CREATE INDEX idx_task_tombstones_tenant_deleted_at ON task_tombstones (tenant_id, deleted_at);
+
+ALTER TABLE task_rollups ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE task_rollups ALTER COLUMN tenant_id DROP DEFAULT;
+CREATE INDEX idx_task_rollups_tenant_bucket_start ON task_rollups (tenant_id, bucket_start);
+
+DROP SEQUENCE tasks_seq;
@@ -0,0 +1,26 @@
+-- Completed and cancelled tasks moved out of tasks by the archiver, with the time they were moved. Same columns
+-- as tasks, so rows are copied across in both directions with INSERT ... SELECT.
+
+CREATE TABLE archived_tasks (
+    id BIGINT NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    priority VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    category_id BIGINT,
+    due_date TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_archived_tasks_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE INDEX idx_archived_tasks_status ON archived_tasks (tenant_id, status, id);
+CREATE INDEX idx_archived_tasks_category ON archived_tasks (category_id);
+CREATE INDEX idx_archived_tasks_archived_at ON archived_tasks (archived_at);
+CREATE INDEX idx_archived_tasks_created_at ON archived_tasks (created_at);
+CREATE INDEX idx_archived_tasks_completed_at ON archived_tasks (completed_at);
@@ -0,0 +1,16 @@
+-- Responses to requests sent with an Idempotency-Key, shared by all instances when task-api.idempotency.persistent
+-- is set. status stays null while the first request with the key is still running. Keys are hashes that include the
+-- tenant, so the table has no tenant column.
+
+CREATE TABLE idempotency_keys (
+    key_hash VARCHAR(64) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    status INTEGER,
+    headers VARCHAR(4000),
+    body BYTEA,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (key_hash)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
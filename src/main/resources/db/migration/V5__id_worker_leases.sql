@@ -0,0 +1,9 @@
+-- Worker ids for generated task and category ids, leased by the instances sharing the database when
+-- task-api.ids.worker-id=auto. A lease not renewed by expires_at belongs to an instance that is gone.
+
+CREATE TABLE id_worker_leases (
+    worker_id INTEGER NOT NULL,
+    owner VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (worker_id)
+);
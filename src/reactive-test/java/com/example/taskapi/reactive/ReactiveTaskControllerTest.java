@@ -0,0 +1,120 @@
+package com.example.taskapi.reactive;
+
+import com.example.taskapi.model.Category;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.service.CategoryService;
+import com.example.taskapi.service.TaskService;
+import com.example.taskapi.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reactive stack against the same database the JPA services write to: what they store must
+ * read back the same, within the tenant only.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "reactive"})
+class ReactiveTaskControllerTest {
+    
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    
+    @Autowired
+    private WebTestClient client;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    private String tenant;
+    private Category category;
+    private List<Task> tasks;
+    
+    @BeforeEach
+    void createTasks() {
+        tenant = "reactive-" + UUID.randomUUID();
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            category = categoryService.createCategory(new Category(null, null, "Reactive", null, null, null, null));
+            tasks = List.of(taskService.createTask(task("First", Task.Status.PENDING)),
+                taskService.createTask(task("Second", Task.Status.COMPLETED)),
+                taskService.createTask(task("Third", Task.Status.PENDING)));
+        }
+    }
+    
+    @Test
+    void pagesReadTheTenantsTasksInIdOrder() {
+        client.get().uri("/api/tasks?limit=2").header(TENANT_HEADER, tenant).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("X-Next-Cursor", tasks.get(1).getId().toString())
+            .expectHeader().exists("ETag")
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].id").isEqualTo(tasks.get(0).getId().toString())
+            .jsonPath("$[0].category.name").isEqualTo("Reactive")
+            .jsonPath("$[1].title").isEqualTo("Second");
+        
+        client.get().uri("/api/tasks/status/PENDING?view=summary").header(TENANT_HEADER, tenant).exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].title").isEqualTo("First")
+            .jsonPath("$[1].title").isEqualTo("Third")
+            .jsonPath("$[0].categoryId").isEqualTo(category.getId().toString());
+    }
+    
+    @Test
+    void tasksAreFoundByIdInTheirTenantOnly() {
+        String path = "/api/tasks/" + tasks.get(0).getId();
+        client.get().uri(path).header(TENANT_HEADER, tenant).exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.title").isEqualTo("First");
+        client.get().uri(path).header(TENANT_HEADER, "someone-else").exchange()
+            .expectStatus().isNotFound();
+        client.get().uri("/api/categories/" + category.getId()).header(TENANT_HEADER, "someone-else").exchange()
+            .expectStatus().isNotFound();
+    }
+    
+    @Test
+    void exportStreamsEveryTaskAsNdjson() {
+        List<Task> exported = client.get().uri("/api/tasks/export").header(TENANT_HEADER, tenant)
+            .accept(MediaType.APPLICATION_NDJSON).exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(Task.class).getResponseBody()
+            .collectList().block();
+        
+        assertThat(exported).extracting(Task::getId).containsExactlyElementsOf(tasks.stream().map(Task::getId).toList());
+    }
+    
+    @Test
+    void writesAreLeftToTheServletStack() {
+        client.post().uri("/api/tasks").header(TENANT_HEADER, tenant).contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"title\": \"Written reactively\"}").exchange()
+            .expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+        client.delete().uri("/api/tasks/" + tasks.get(0).getId()).header(TENANT_HEADER, tenant).exchange()
+            .expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED);
+        
+        client.get().uri("/api/tasks").header(TENANT_HEADER, tenant).exchange()
+            .expectBody().jsonPath("$.length()").isEqualTo(3);
+    }
+    
+    private Task task(String title, Task.Status status) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setCategory(category);
+        return task;
+    }
+}
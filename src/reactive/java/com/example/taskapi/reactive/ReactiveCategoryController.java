@@ -0,0 +1,46 @@
+package com.example.taskapi.reactive;
+
+import com.example.taskapi.model.Category;
+import com.example.taskapi.service.CategoryService;
+import com.example.taskapi.web.EntityTags;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The category endpoints of the reactive stack ({@code reactive} profile), answering like
+ * {@link com.example.taskapi.controller.CategoryController}, read-only. Categories are read
+ * through R2DBC; the cached list with task counts comes from {@link CategoryService}.
+ */
+@RestController
+@RequestMapping("/api/categories")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCategoryController {
+    
+    private final ReactiveTaskQueries queries;
+    private final CategoryService categoryService;
+    
+    public ReactiveCategoryController(ReactiveTaskQueries queries, CategoryService categoryService) {
+        this.queries = queries;
+        this.categoryService = categoryService;
+    }
+    
+    @GetMapping
+    public Mono<ResponseEntity<List<?>>> getAllCategories(@RequestParam(defaultValue = "false") boolean withCounts) {
+        Mono<? extends List<?>> categories = withCounts
+            ? ReactiveTenantFilter.blocking(categoryService::getAllCategoriesWithCounts)
+            : ReactiveTenantFilter.tenant().flatMap(tenant -> queries.findCategories(tenant).collectList());
+        return categories.map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Category>> getCategoryById(@PathVariable Long id) {
+        return ReactiveTenantFilter.tenant()
+            .flatMap(tenant -> queries.findCategory(tenant, id))
+            .map(category -> ResponseEntity.ok().eTag(EntityTags.of(category)).body(category))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.taskapi.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * The reactive stack, active with the {@code reactive} profile: WebFlux on Netty instead of Spring
+ * MVC on Tomcat, and R2DBC next to the JDBC pool, which Flyway and the JPA services keep using.
+ *
+ * <p>The R2DBC pool is configured by {@code spring.r2dbc.*} but deliberately not a bean: Spring
+ * Boot leaves out the JDBC data source when it finds a {@code ConnectionFactory} bean.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration implements DisposableBean {
+    
+    private final ConnectionPool connectionPool;
+    
+    public ReactiveConfiguration(@Value("${spring.r2dbc.url}") String url,
+                                 @Value("${spring.r2dbc.username:}") String username,
+                                 @Value("${spring.r2dbc.password:}") String password,
+                                 @Value("${spring.r2dbc.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+            .builder(ConnectionFactories.get(options.build()))
+            .maxSize(maxSize)
+            .build());
+    }
+    
+    // Tomcat is on the class path for the servlet stack, and Spring Boot would run WebFlux on it too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+    
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+    
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
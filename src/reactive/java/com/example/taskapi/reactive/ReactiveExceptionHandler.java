@@ -0,0 +1,30 @@
+package com.example.taskapi.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux reports an unsupported method or media type as a {@link ResponseStatusException}, which
+ * {@link com.example.taskapi.controller.GlobalExceptionHandler} would turn into a 500; answers with
+ * its own status instead, such as 405 for the writes this stack does not serve.
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+    
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> handleResponseStatusException(ResponseStatusException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getReason() != null ? e.getReason() : e.getStatusCode().toString());
+        return ResponseEntity.status(e.getStatusCode()).headers(e.getHeaders()).body(error);
+    }
+}
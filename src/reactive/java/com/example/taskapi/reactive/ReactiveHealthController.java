@@ -0,0 +1,36 @@
+package com.example.taskapi.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Whether the database answers; the row counts and cache statistics are only on the servlet stack
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHealthController {
+    
+    private final DatabaseClient databaseClient;
+    
+    public ReactiveHealthController(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    @GetMapping("/health")
+    public Mono<ResponseEntity<Map<String, Object>>> health() {
+        return databaseClient.sql("SELECT 1").fetch().first()
+            .timeout(Duration.ofSeconds(1))
+            .map(row -> ResponseEntity.ok(Map.<String, Object>of("status", "UP", "database", "connected")))
+            .onErrorResume(e -> Mono.empty())
+            .defaultIfEmpty(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", "DOWN", "database", "unreachable")));
+    }
+}
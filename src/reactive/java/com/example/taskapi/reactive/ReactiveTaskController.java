@@ -0,0 +1,134 @@
+package com.example.taskapi.reactive;
+
+import com.example.taskapi.dto.TaskSummary;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import com.example.taskapi.reactive.ReactiveTaskQueries.TaskFilter;
+import com.example.taskapi.service.TaskService;
+import com.example.taskapi.web.EntityTags;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The task endpoints of the reactive stack ({@code reactive} profile). Reads go through
+ * {@link ReactiveTaskQueries} and answer like {@link com.example.taskapi.controller.TaskController}:
+ * the same pages, cursors and ETags. {@code GET /api/tasks/export} streams every task as NDJSON,
+ * fetching rows only as fast as the client reads them.
+ *
+ * <p>Read-only: writes and the other task endpoints (search, overdue, stats, batch, changes,
+ * events, analytics) are only served by the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskController {
+    
+    static final String NDJSON = "application/x-ndjson";
+    
+    private final ReactiveTaskQueries queries;
+    private final TaskService taskService;
+    
+    public ReactiveTaskController(ReactiveTaskQueries queries, TaskService taskService) {
+        this.queries = queries;
+        this.taskService = taskService;
+    }
+    
+    @GetMapping
+    public Mono<ResponseEntity<List<?>>> getAllTasks(@RequestParam(required = false) Long after,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(defaultValue = "full") String view) {
+        return page(TaskFilter.NONE, after, limit, view);
+    }
+    
+    // The same page as GET /api/tasks, written out row by row as it is read
+    @GetMapping(produces = NDJSON)
+    public Flux<Task> streamTasks(@RequestParam(required = false) Long after,
+                                  @RequestParam(required = false) Integer limit) {
+        int pageSize = taskService.resolvePageSize(limit);
+        return ReactiveTenantFilter.tenant()
+            .flatMapMany(tenant -> queries.findTasks(tenant, TaskFilter.NONE, cursor(after), pageSize));
+    }
+    
+    @GetMapping(value = "/export", produces = NDJSON)
+    public Flux<Task> exportTasks() {
+        return ReactiveTenantFilter.tenant().flatMapMany(queries::streamTasks);
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Task>> getTaskById(@PathVariable Long id,
+                                                  @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ReactiveTenantFilter.tenant()
+            .flatMap(tenant -> {
+                Mono<Task> task = queries.findTask(tenant, id);
+                return includeArchived ? task.switchIfEmpty(queries.findArchivedTask(tenant, id)) : task;
+            })
+            .map(task -> ResponseEntity.ok()
+                .eTag(EntityTags.of(task))
+                .lastModified(EntityTags.lastModified(task))
+                .body(task))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<List<?>>> getTasksByStatus(@PathVariable Status status,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(defaultValue = "full") String view) {
+        return page(new TaskFilter(status, null, null), after, limit, view);
+    }
+    
+    @GetMapping("/priority/{priority}")
+    public Mono<ResponseEntity<List<?>>> getTasksByPriority(@PathVariable Priority priority,
+                                                            @RequestParam(required = false) Long after,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(defaultValue = "full") String view) {
+        return page(new TaskFilter(null, priority, null), after, limit, view);
+    }
+    
+    @GetMapping("/category/{categoryId}")
+    public Mono<ResponseEntity<List<?>>> getTasksByCategory(@PathVariable Long categoryId,
+                                                            @RequestParam(required = false) Long after,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(defaultValue = "full") String view) {
+        return page(new TaskFilter(null, null, categoryId), after, limit, view);
+    }
+    
+    private Mono<ResponseEntity<List<?>>> page(TaskFilter filter, Long after, Integer limit, String view) {
+        int pageSize = taskService.resolvePageSize(limit);
+        boolean summary = isSummaryView(view);
+        return ReactiveTenantFilter.tenant().flatMap(tenant -> summary
+            ? queries.findSummaries(tenant, filter, cursor(after), pageSize).collectList()
+                .map(summaries -> page(summaries, pageSize, TaskSummary::id, EntityTags.ofSummaries(summaries)))
+            : queries.findTasks(tenant, filter, cursor(after), pageSize).collectList()
+                .map(tasks -> page(tasks, pageSize, Task::getId, EntityTags.of(tasks))));
+    }
+    
+    // A full page means there may be more rows; hand back the last id as the cursor for the next request
+    private static <T> ResponseEntity<List<?>> page(List<T> items, int pageSize, Function<T, Long> id, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (!items.isEmpty() && items.size() >= pageSize) {
+            response.header("X-Next-Cursor", String.valueOf(id.apply(items.get(items.size() - 1))));
+        }
+        return response.body(items);
+    }
+    
+    private static boolean isSummaryView(String view) {
+        return switch (view.toLowerCase(Locale.ROOT)) {
+            case "summary" -> true;
+            case "full" -> false;
+            default -> throw new IllegalArgumentException("view must be 'summary' or 'full'");
+        };
+    }
+    
+    private static long cursor(Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+}
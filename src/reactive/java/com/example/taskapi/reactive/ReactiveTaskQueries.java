@@ -0,0 +1,176 @@
+package com.example.taskapi.reactive;
+
+import com.example.taskapi.dto.TaskSummary;
+import com.example.taskapi.model.Category;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The task and category reads of the reactive stack, run through R2DBC so no thread waits on the
+ * database. They return the same rows as the JPA repositories do. Hibernate's tenant filter does
+ * not apply here, so every query names the tenant itself.
+ *
+ * <p>Results are streamed: rows are decoded as the subscriber asks for them, so a slow client
+ * holds back the query rather than rows piling up in memory.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskQueries {
+    
+    private static final String TASK_COLUMNS =
+        "t.id, t.title, t.description, t.priority, t.status, t.due_date, t.completed_at, t.created_at, "
+            + "t.updated_at, t.version, c.id AS c_id, c.name AS c_name, c.description AS c_description, "
+            + "c.created_at AS c_created_at, c.updated_at AS c_updated_at, c.version AS c_version";
+    private static final String TASKS = " FROM tasks t LEFT JOIN categories c ON c.id = t.category_id";
+    private static final String SUMMARY_COLUMNS =
+        "t.id, t.title, t.status, t.priority, t.due_date, c.id AS c_id, c.name AS c_name, t.updated_at";
+    private static final String CATEGORY_COLUMNS = "id, name, description, created_at, updated_at, version";
+    
+    private final DatabaseClient databaseClient;
+    
+    public ReactiveTaskQueries(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    /**
+     * A page of the tenant's tasks after {@code afterId} in id order, narrowed to a status,
+     * priority or category when one is given.
+     */
+    public Flux<Task> findTasks(String tenant, TaskFilter filter, long afterId, int limit) {
+        return page("SELECT " + TASK_COLUMNS + TASKS, tenant, filter, afterId, limit)
+            .map((row, metadata) -> task(row))
+            .all();
+    }
+    
+    public Flux<TaskSummary> findSummaries(String tenant, TaskFilter filter, long afterId, int limit) {
+        return page("SELECT " + SUMMARY_COLUMNS + TASKS, tenant, filter, afterId, limit)
+            .map((row, metadata) -> summary(row))
+            .all();
+    }
+    
+    // Every task of the tenant, for export
+    public Flux<Task> streamTasks(String tenant) {
+        return databaseClient.sql("SELECT " + TASK_COLUMNS + TASKS + " WHERE t.tenant_id = :tenant ORDER BY t.id")
+            .bind("tenant", tenant)
+            .map((row, metadata) -> task(row))
+            .all();
+    }
+    
+    public Mono<Task> findTask(String tenant, long id) {
+        return databaseClient.sql("SELECT " + TASK_COLUMNS + TASKS + " WHERE t.tenant_id = :tenant AND t.id = :id")
+            .bind("tenant", tenant)
+            .bind("id", id)
+            .map((row, metadata) -> task(row))
+            .one();
+    }
+    
+    public Mono<Task> findArchivedTask(String tenant, long id) {
+        return databaseClient.sql("SELECT " + TASK_COLUMNS
+                + " FROM archived_tasks t LEFT JOIN categories c ON c.id = t.category_id"
+                + " WHERE t.tenant_id = :tenant AND t.id = :id")
+            .bind("tenant", tenant)
+            .bind("id", id)
+            .map((row, metadata) -> {
+                Task task = task(row);
+                task.setArchived(true);
+                return task;
+            })
+            .one();
+    }
+    
+    public Flux<Category> findCategories(String tenant) {
+        return databaseClient.sql("SELECT " + CATEGORY_COLUMNS + " FROM categories WHERE tenant_id = :tenant ORDER BY id")
+            .bind("tenant", tenant)
+            .map((row, metadata) -> category(row, ""))
+            .all();
+    }
+    
+    public Mono<Category> findCategory(String tenant, long id) {
+        return databaseClient.sql("SELECT " + CATEGORY_COLUMNS + " FROM categories WHERE tenant_id = :tenant AND id = :id")
+            .bind("tenant", tenant)
+            .bind("id", id)
+            .map((row, metadata) -> category(row, ""))
+            .one();
+    }
+    
+    private DatabaseClient.GenericExecuteSpec page(String select, String tenant, TaskFilter filter, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(select).append(" WHERE t.tenant_id = :tenant AND t.id > :afterId");
+        if (filter.status() != null) {
+            sql.append(" AND t.status = :status");
+        }
+        if (filter.priority() != null) {
+            sql.append(" AND t.priority = :priority");
+        }
+        if (filter.categoryId() != null) {
+            sql.append(" AND t.category_id = :categoryId");
+        }
+        sql.append(" ORDER BY t.id LIMIT :limit");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+            .bind("tenant", tenant)
+            .bind("afterId", afterId)
+            .bind("limit", limit);
+        if (filter.status() != null) {
+            spec = spec.bind("status", filter.status().name());
+        }
+        if (filter.priority() != null) {
+            spec = spec.bind("priority", filter.priority().name());
+        }
+        if (filter.categoryId() != null) {
+            spec = spec.bind("categoryId", filter.categoryId());
+        }
+        return spec;
+    }
+    
+    private static Task task(Readable row) {
+        Task task = new Task();
+        task.setId(row.get("id", Long.class));
+        task.setTitle(row.get("title", String.class));
+        task.setDescription(row.get("description", String.class));
+        task.setPriority(Priority.valueOf(row.get("priority", String.class)));
+        task.setStatus(Status.valueOf(row.get("status", String.class)));
+        task.setDueDate(row.get("due_date", LocalDateTime.class));
+        task.setCompletedAt(row.get("completed_at", LocalDateTime.class));
+        task.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        task.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        task.setVersion(row.get("version", Long.class));
+        if (row.get("c_id", Long.class) != null) {
+            task.setCategory(category(row, "c_"));
+        }
+        return task;
+    }
+    
+    private static TaskSummary summary(Readable row) {
+        return new TaskSummary(row.get("id", Long.class), row.get("title", String.class),
+            Status.valueOf(row.get("status", String.class)), Priority.valueOf(row.get("priority", String.class)),
+            row.get("due_date", LocalDateTime.class), row.get("c_id", Long.class), row.get("c_name", String.class),
+            row.get("updated_at", LocalDateTime.class));
+    }
+    
+    private static Category category(Readable row, String prefix) {
+        Category category = new Category();
+        category.setId(row.get(prefix + "id", Long.class));
+        category.setName(row.get(prefix + "name", String.class));
+        category.setDescription(row.get(prefix + "description", String.class));
+        category.setCreatedAt(row.get(prefix + "created_at", LocalDateTime.class));
+        category.setUpdatedAt(row.get(prefix + "updated_at", LocalDateTime.class));
+        category.setVersion(row.get(prefix + "version", Long.class));
+        return category;
+    }
+    
+    /**
+     * What a page of tasks is narrowed to; all null lists every task.
+     */
+    public record TaskFilter(Status status, Priority priority, Long categoryId) {
+        
+        public static final TaskFilter NONE = new TaskFilter(null, null, null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskapi.reactive;
+
+import com.example.taskapi.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * The reactive counterpart of {@link com.example.taskapi.web.TenantFilter}: a request works for the
+ * tenant named in the tenant header, or the default tenant without it. A request is not tied to a
+ * thread here, so the tenant travels in the Reactor context instead of {@link TenantContext}.
+ */
+@Component
+@Order(2)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTenantFilter implements WebFilter {
+    
+    private static final String TENANT = ReactiveTenantFilter.class.getName() + ".tenant";
+    
+    private final String header;
+    
+    public ReactiveTenantFilter(@Value("${task-api.tenancy.header:X-Tenant-Id}") String header) {
+        this.header = header;
+    }
+    
+    /**
+     * The tenant of the request being served.
+     */
+    public static Mono<String> tenant() {
+        return Mono.deferContextual(context -> Mono.just(context.getOrDefault(TENANT, TenantContext.DEFAULT_TENANT)));
+    }
+    
+    /**
+     * Runs blocking work, such as a JPA service call, on a thread that may block, with the request's
+     * tenant bound to that thread for its duration.
+     */
+    public static <T> Mono<T> blocking(Callable<T> work) {
+        return tenant().flatMap(tenant -> Mono.fromCallable(() -> {
+            try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+                return work.call();
+            }
+        }).subscribeOn(Schedulers.boundedElastic()));
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        String tenant = exchange.getRequest().getHeaders().getFirst(header);
+        if (tenant == null) {
+            tenant = TenantContext.DEFAULT_TENANT;
+        } else if (!TenantContext.isValid(tenant)) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            DataBuffer body = response.bufferFactory().wrap(("{\"error\":\"" + header
+                + " must be 1-64 letters, digits, '.', '_' or '-'\"}").getBytes(StandardCharsets.UTF_8));
+            return response.writeWith(Mono.just(body));
+        }
+        String bound = tenant;
+        return chain.filter(exchange).contextWrite(context -> context.put(TENANT, bound));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.taskapi;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The migrations on PostgreSQL, including the ones only PostgreSQL runs ({@code db/vendor/postgresql}):
+ * from an empty database, and from one the first release created with {@code ddl-auto=update}.
+ * Needs Docker, and is skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresMigrationTest {
+    
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    @Test
+    void anEmptyDatabaseIsMigratedToPartitionedTasks() {
+        DataSource dataSource = database("fresh");
+        
+        migrate(dataSource);
+        
+        assertMigrated(new JdbcTemplate(dataSource));
+    }
+    
+    @Test
+    void aDatabaseCreatedByTheFirstReleaseIsAdoptedAndMigrated() throws SQLException {
+        DataSource dataSource = database("legacy");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/legacy/ddl-auto-schema.sql"));
+        }
+        
+        migrate(dataSource);
+        
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertMigrated(jdbc);
+        assertThat(jdbc.queryForList("SELECT tenant_id || ':' || title || ':' || category_id FROM tasks", String.class))
+            .containsExactly("default:Legacy task:1");
+        assertThat(jdbc.queryForObject("SELECT tenant_id FROM categories WHERE id = 1", String.class)).isEqualTo("default");
+        
+        // The fix-up before migrating has nothing left to do on the next start
+        migrate(dataSource);
+    }
+    
+    private static void assertMigrated(JdbcTemplate jdbc) {
+        assertThat(jdbc.queryForObject("SELECT relkind FROM pg_class WHERE relname = 'tasks'", String.class)).isEqualTo("p");
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM pg_inherits WHERE inhparent = 'tasks'::regclass", Integer.class))
+            .isEqualTo(8);
+        assertThat(jdbc.queryForList("SELECT conname FROM pg_constraint WHERE conrelid = 'tasks'::regclass AND contype = 'f'",
+            String.class)).isEqualTo(List.of("fk_tasks_category"));
+        assertThat(jdbc.queryForObject("SELECT max(version) FROM flyway_schema_history WHERE success", String.class))
+            .isEqualTo("5");
+    }
+    
+    // The same locations and baseline as the postgres profile
+    private static void migrate(DataSource dataSource) {
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load()
+            .migrate();
+    }
+    
+    private static DataSource database(String name) {
+        new JdbcTemplate(dataSource(postgres.getJdbcUrl())).execute("CREATE DATABASE " + name);
+        return dataSource(postgres.getJdbcUrl().replace("/" + postgres.getDatabaseName(), "/" + name));
+    }
+    
+    private static DataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.taskapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes against three separate in-memory databases, each of which names itself and reports its
+ * own replication lag, so every test can tell where a connection went.
+ */
+class ReplicaRoutingDataSourceTest {
+    
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+    
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private HikariDataSource primary;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary");
+        replica1 = database("replica1");
+        replica2 = database("replica2");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        RequestContextHolder.resetRequestAttributes();
+        ReplicaRoutingDataSource.unpin();
+        pools.forEach(HikariDataSource::close);
+    }
+    
+    @Test
+    void writesAndConnectionsOutsideTransactionsGoToThePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica1, replica2));
+        
+        assertThat(serverOf(routing)).isEqualTo("primary");
+        inTransaction(false);
+        assertThat(serverOf(routing)).isEqualTo("primary");
+    }
+    
+    @Test
+    void readOnlyTransactionsTakeTheReplicasInTurn() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica1, replica2));
+        inTransaction(true);
+        
+        assertThat(List.of(serverOf(routing), serverOf(routing), serverOf(routing), serverOf(routing)))
+            .containsExactly("replica1", "replica2", "replica1", "replica2");
+        assertThat(routing.fallbackCount()).isZero();
+    }
+    
+    @Test
+    void readsStayOnThePrimaryAfterTheRequestWrote() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica1, replica2));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        inTransaction(true);
+        assertThat(serverOf(routing)).isEqualTo("replica1");
+        
+        inTransaction(false);
+        assertThat(serverOf(routing)).isEqualTo("primary");
+        inTransaction(true);
+        assertThat(serverOf(routing)).isEqualTo("primary");
+    }
+    
+    @Test
+    void pinnedReadsGoToThePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica1, replica2));
+        inTransaction(true);
+        
+        assertThat(ReplicaRoutingDataSource.pinToPrimary()).isTrue();
+        assertThat(ReplicaRoutingDataSource.pinToPrimary()).isFalse();
+        assertThat(serverOf(routing)).isEqualTo("primary");
+        ReplicaRoutingDataSource.unpin();
+        assertThat(serverOf(routing)).isEqualTo("replica1");
+    }
+    
+    @Test
+    void lagOverTheLimitTakesAReplicaOutOfRotationUntilItCatchesUp() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica1, replica2));
+        setLag(replica1, 5);
+        routing.checkReplicas();
+        
+        assertThat(routing.getReplicas()).extracting(ReplicaRoutingDataSource.Replica::isHealthy)
+            .containsExactly(false, true);
+        assertThat(routing.getReplicas().get(0).getLagMillis()).isEqualTo(5000);
+        inTransaction(true);
+        assertThat(List.of(serverOf(routing), serverOf(routing))).containsExactly("replica2", "replica2");
+        
+        setLag(replica1, 0);
+        routing.checkReplicas();
+        assertThat(routing.healthyReplicaCount()).isEqualTo(2);
+    }
+    
+    @Test
+    void readsFallBackToThePrimaryWithoutAUsableReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica1, unreachable()));
+        setLag(replica1, 5);
+        routing.checkReplicas();
+        
+        assertThat(routing.healthyReplicaCount()).isZero();
+        inTransaction(true);
+        assertThat(serverOf(routing)).isEqualTo("primary");
+        assertThat(routing.fallbackCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void aReplicaFailingOnConnectIsSkippedAtOnce() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(unreachable(), replica2));
+        inTransaction(true);
+        
+        assertThat(List.of(serverOf(routing), serverOf(routing))).containsExactly("replica2", "replica2");
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+        assertThat(routing.fallbackCount()).isZero();
+    }
+    
+    @Test
+    void connectionsWithOtherCredentialsAreNotSupported() {
+        ReplicaRoutingDataSource routing = routing(List.of(replica1));
+        
+        assertThatThrownBy(() -> routing.getConnection("someone", "secret"))
+            .isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+    
+    private ReplicaRoutingDataSource routing(List<HikariDataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas, LAG_QUERY, Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+    
+    private HikariDataSource database(String name) throws SQLException {
+        HikariDataSource dataSource = pool("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS server (name VARCHAR(32))");
+            statement.execute("DELETE FROM server");
+            statement.execute("INSERT INTO server VALUES ('" + name + "')");
+            statement.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)");
+            statement.execute("DELETE FROM replica_lag");
+            statement.execute("INSERT INTO replica_lag VALUES (0)");
+        }
+        return dataSource;
+    }
+    
+    // Nothing listens on port 1, and the pool refuses to start
+    private HikariDataSource unreachable() {
+        return pool("jdbc:h2:tcp://localhost:1/nothing");
+    }
+    
+    private HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("pool-" + pools.size());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setConnectionTimeout(250);
+        pools.add(dataSource);
+        return dataSource;
+    }
+    
+    private static void setLag(HikariDataSource dataSource, double seconds) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE replica_lag SET seconds = " + seconds);
+        }
+    }
+    
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+    
+    private static String serverOf(ReplicaRoutingDataSource routing) throws SQLException {
+        try (Connection connection = routing.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT name FROM server")) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+}
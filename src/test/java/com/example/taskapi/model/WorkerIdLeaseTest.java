@@ -0,0 +1,103 @@
+package com.example.taskapi.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkerIdLeaseTest {
+    
+    private final List<WorkerIdLease> leases = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:leases;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS id_worker_leases (worker_id INTEGER NOT NULL, "
+            + "owner VARCHAR(255) NOT NULL, expires_at TIMESTAMP(6) NOT NULL, PRIMARY KEY (worker_id))");
+        jdbcTemplate.update("DELETE FROM id_worker_leases");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        leases.forEach(WorkerIdLease::close);
+    }
+    
+    @Test
+    void instancesLeaseDifferentWorkerIds() {
+        assertThat(List.of(lease().workerId(), lease().workerId(), lease().workerId())).containsExactly(0, 1, 2);
+    }
+    
+    @Test
+    void aReleasedWorkerIdIsLeasedAgain() {
+        WorkerIdLease first = lease();
+        assertThat(first.workerId()).isZero();
+        assertThat(lease().workerId()).isEqualTo(1);
+        
+        first.close();
+        assertThat(lease().workerId()).isZero();
+    }
+    
+    @Test
+    void anExpiredLeaseIsTakenOver() {
+        WorkerIdLease gone = lease();
+        assertThat(gone.workerId()).isZero();
+        jdbcTemplate.update("UPDATE id_worker_leases SET expires_at = ?", Timestamp.from(Instant.now().minusSeconds(300)));
+        
+        assertThat(lease().workerId()).isZero();
+        // The instance that lost it moves to another id on its next renewal
+        gone.renew();
+        assertThat(gone.workerId()).isEqualTo(1);
+    }
+    
+    @Test
+    void aLeaseRenewsItselfWhileItIsHeld() throws InterruptedException {
+        WorkerIdLease lease = WorkerIdLease.leased(jdbcTemplate, Duration.ofMillis(400));
+        leases.add(lease);
+        assertThat(lease.workerId()).isZero();
+        
+        Thread.sleep(800);
+        assertThat(lease.workerId()).isZero();
+    }
+    
+    @Test
+    void aLeaseThatCannotBeRenewedStopsHandingOutTheWorkerId() throws InterruptedException {
+        WorkerIdLease lease = WorkerIdLease.leased(jdbcTemplate, Duration.ofMillis(200));
+        leases.add(lease);
+        assertThat(lease.workerId()).isZero();
+        
+        // The lease table is out of reach for longer than the lease
+        jdbcTemplate.execute("ALTER TABLE id_worker_leases RENAME TO id_worker_leases_unreachable");
+        try {
+            Thread.sleep(300);
+            assertThatThrownBy(lease::workerId).isInstanceOf(IllegalStateException.class);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE id_worker_leases_unreachable RENAME TO id_worker_leases");
+        }
+        lease.renew();
+        assertThat(lease.workerId()).isZero();
+    }
+    
+    @Test
+    void fixedWorkerIdsMustBeInRange() {
+        assertThat(WorkerIdLease.fixed(1023).workerId()).isEqualTo(1023);
+        assertThatThrownBy(() -> WorkerIdLease.fixed(1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WorkerIdLease.fixed(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private WorkerIdLease lease() {
+        WorkerIdLease lease = WorkerIdLease.leased(jdbcTemplate, Duration.ofMinutes(1));
+        leases.add(lease);
+        return lease;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.model.Task;
+import com.example.taskapi.model.Task.Priority;
+import com.example.taskapi.model.Task.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Queries answered from the in-memory indexes, after rows changed behind the service's back: the
+ * indexes still list them until their next rebuild, but the results must not.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IndexedTaskQueriesTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private OverdueTracker overdueTracker;
+    
+    @Autowired
+    private TaskTextIndex textIndex;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void buildIndexes() {
+        overdueTracker.rebuild();
+        textIndex.rebuild();
+    }
+    
+    @Test
+    void overdueTasksCompletedBehindTheTrackerAreLeftOut() {
+        Task stale = taskService.createTask(task("stale overdue", LocalDateTime.now().minusDays(1)));
+        Task overdue = taskService.createTask(task("still overdue", LocalDateTime.now().minusDays(1)));
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED' WHERE id = ?", stale.getId());
+        
+        assertThat(taskService.getOverdueTasks(null, 1000)).extracting(Task::getId)
+            .contains(overdue.getId()).doesNotContain(stale.getId());
+        assertThat(taskService.getOverdueTaskSummaries(null, 1000)).extracting(summary -> summary.id())
+            .contains(overdue.getId()).doesNotContain(stale.getId());
+    }
+    
+    @Test
+    void overduePagesAreFilledPastTasksCompletedBehindTheTracker() {
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED' WHERE due_date < ?", LocalDateTime.now());
+        overdueTracker.rebuild();
+        Task stale = taskService.createTask(task("stale overdue", LocalDateTime.now().minusDays(1)));
+        Task first = taskService.createTask(task("first overdue", LocalDateTime.now().minusDays(1)));
+        Task second = taskService.createTask(task("second overdue", LocalDateTime.now().minusDays(1)));
+        Task third = taskService.createTask(task("third overdue", LocalDateTime.now().minusDays(1)));
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED' WHERE id = ?", stale.getId());
+        
+        assertThat(taskService.getOverdueTasks(null, 2)).extracting(Task::getId)
+            .containsExactly(first.getId(), second.getId());
+        assertThat(taskService.getOverdueTaskSummaries(null, 2)).extracting(summary -> summary.id())
+            .containsExactly(first.getId(), second.getId());
+        assertThat(taskService.getOverdueTasks(second.getId(), 2)).extracting(Task::getId)
+            .containsExactly(third.getId());
+    }
+    
+    @Test
+    void dueSoonPagesAreFilledPastTasksMovedBehindTheTracker() {
+        LocalDateTime soon = LocalDateTime.now().plusMinutes(30);
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED' WHERE due_date < ?", soon.plusMinutes(1));
+        overdueTracker.rebuild();
+        Task moved = taskService.createTask(task("moved due date", soon));
+        Task first = taskService.createTask(task("first due", soon.plusSeconds(1)));
+        Task second = taskService.createTask(task("second due", soon.plusSeconds(2)));
+        jdbcTemplate.update("UPDATE tasks SET due_date = ? WHERE id = ?", LocalDateTime.now().plusDays(30), moved.getId());
+        
+        assertThat(taskService.getTasksDueWithin(Duration.ofMinutes(31), 2)).extracting(Task::getId)
+            .containsExactly(first.getId(), second.getId());
+    }
+    
+    @Test
+    void tasksDueLaterThanTheTrackerKnowsAreLeftOut() {
+        Task moved = taskService.createTask(task("moved due date", LocalDateTime.now().plusHours(1)));
+        Task due = taskService.createTask(task("still due", LocalDateTime.now().plusHours(1)));
+        jdbcTemplate.update("UPDATE tasks SET due_date = ? WHERE id = ?", LocalDateTime.now().plusDays(30), moved.getId());
+        
+        assertThat(taskService.getTasksDueWithin(Duration.ofHours(2), 1000)).extracting(Task::getId)
+            .contains(due.getId()).doesNotContain(moved.getId());
+    }
+    
+    @Test
+    void textMatchesWhoseStatusOrPriorityChangedBehindTheIndexAreLeftOut() {
+        Task completed = taskService.createTask(task("quarterly zeppelin report", null));
+        Task reprioritized = taskService.createTask(task("monthly zeppelin report", null));
+        Task pending = taskService.createTask(task("weekly zeppelin report", null));
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED' WHERE id = ?", completed.getId());
+        jdbcTemplate.update("UPDATE tasks SET priority = 'LOW' WHERE id = ?", reprioritized.getId());
+        
+        assertThat(taskService.searchText("zeppelin", Status.PENDING, Priority.MEDIUM, null, 100))
+            .extracting(Task::getId).containsExactly(pending.getId());
+        assertThat(taskService.searchTextSummaries("zeppelin", Status.PENDING, Priority.MEDIUM, null, 100))
+            .extracting(summary -> summary.id()).containsExactly(pending.getId());
+        assertThat(taskService.searchText("zeppelin", null, null, null, 100)).hasSize(3);
+    }
+    
+    private static Task task(String title, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(Status.PENDING);
+        task.setDueDate(dueDate);
+        return task;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.BatchItemResult;
+import com.example.taskapi.dto.BatchItemResult.Outcome;
+import com.example.taskapi.dto.IngestionStatus;
+import com.example.taskapi.dto.IngestionStatus.State;
+import com.example.taskapi.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskIngestionQueueTest {
+    
+    private final TaskService taskService = mock(TaskService.class);
+    private final AtomicLong ids = new AtomicLong();
+    
+    @Test
+    void aTaskThatFailsItsBatchIsTheOnlyOneToFail() {
+        // Any batch holding the poisoned task fails as a whole
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            if (tasks.stream().anyMatch(task -> task.getTitle().equals("poison"))) {
+                throw new DataAccessResourceFailureException("Connection reset");
+            }
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                results.add(BatchItemResult.success(i, ids.incrementAndGet(), Outcome.CREATED));
+            }
+            return results;
+        });
+        TaskIngestionQueue queue = queue();
+        queue.start();
+        List<String> trackingIds = new ArrayList<>();
+        for (String title : List.of("one", "two", "poison", "four", "five")) {
+            trackingIds.add(queue.submit(task(title)).orElseThrow().getTrackingId());
+        }
+        queue.stop();
+        
+        assertThat(trackingIds).map(trackingId -> queue.getStatus(trackingId).map(IngestionStatus::getState).orElseThrow())
+            .containsExactly(State.CREATED, State.CREATED, State.FAILED, State.CREATED, State.CREATED);
+        assertThat(queue.getStatus(trackingIds.get(2)).orElseThrow().getError()).isEqualTo("Task could not be stored");
+        assertThat(queue.size()).isZero();
+    }
+    
+    @Test
+    void aBatchThatMayHaveBeenStoredIsNotWrittenAgain() {
+        // As when a side effect fails after the tasks were committed
+        when(taskService.createTasks(anyList())).thenThrow(new IllegalStateException("Event listener failed"));
+        TaskIngestionQueue queue = queue();
+        queue.start();
+        List<String> trackingIds = new ArrayList<>();
+        for (String title : List.of("one", "two", "three")) {
+            trackingIds.add(queue.submit(task(title)).orElseThrow().getTrackingId());
+        }
+        queue.stop();
+        
+        verify(taskService, times(1)).createTasks(anyList());
+        assertThat(trackingIds).map(trackingId -> queue.getStatus(trackingId).orElseThrow().getError())
+            .containsOnly("Task may not have been stored");
+    }
+    
+    // A batch size of 10 and a long idle wait, so all submitted tasks are written as one batch on stop
+    private TaskIngestionQueue queue() {
+        return new TaskIngestionQueue(taskService, mock(CategoryService.class),
+            new SimpleMeterRegistry(), 100, 1, 10, Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofSeconds(5));
+    }
+    
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.taskapi.service;
+
+import com.example.taskapi.dto.BatchItemResult;
+import com.example.taskapi.dto.BatchItemResult.Outcome;
+import com.example.taskapi.model.Task;
+import com.example.taskapi.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceBatchTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @AfterEach
+    void dropConstraint() {
+        jdbcTemplate.execute("ALTER TABLE tasks DROP CONSTRAINT IF EXISTS ck_test_refused");
+    }
+    
+    @Test
+    void invalidItemsFailAloneWithTheirViolations() {
+        List<BatchItemResult> results = taskService.createTasks(List.of(
+            task("batch valid"), task("x".repeat(300)), withDescription(task("batch long"), "y".repeat(2001))));
+        
+        assertThat(results).extracting(BatchItemResult::getOutcome)
+            .containsExactly(Outcome.CREATED, Outcome.FAILED, Outcome.FAILED);
+        assertThat(results.get(1).getError()).isEqualTo("title: Task title must be at most 255 characters");
+        assertThat(results.get(2).getError()).isEqualTo("description: Task description must be at most 2000 characters");
+        assertThat(taskRepository.findById(results.get(0).getId())).isPresent();
+    }
+    
+    @Test
+    void rowsTheDatabaseRefusesFailAloneWithoutItsMessage() {
+        jdbcTemplate.execute("ALTER TABLE tasks ADD CONSTRAINT ck_test_refused CHECK (title <> 'refused')");
+        
+        List<BatchItemResult> results = taskService.createTasks(List.of(
+            task("before refused"), task("refused"), task("after refused")));
+        
+        assertThat(results).extracting(BatchItemResult::getOutcome)
+            .containsExactly(Outcome.CREATED, Outcome.FAILED, Outcome.CREATED);
+        assertThat(results.get(1).getError()).isEqualTo("Task could not be stored");
+        assertThat(results.get(1).getId()).isNull();
+        assertThat(taskRepository.findById(results.get(0).getId())).get().extracting(Task::getTitle).isEqualTo("before refused");
+        assertThat(taskRepository.findById(results.get(2).getId())).get().extracting(Task::getTitle).isEqualTo("after refused");
+    }
+    
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+    
+    private static Task withDescription(Task task, String description) {
+        task.setDescription(description);
+        return task;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.taskapi.tenant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One tenant's tasks, addressed by id from another tenant, through every endpoint that takes an
+ * id: they must look as if they did not exist, and stay as they were.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TenantIsolationTest {
+    
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private String owner;
+    private String other;
+    private String taskId;
+    private String categoryId;
+    
+    @BeforeEach
+    void createTask() throws Exception {
+        owner = "owner-" + UUID.randomUUID();
+        other = "other-" + UUID.randomUUID();
+        categoryId = create(owner, "/api/categories", "{\"name\": \"Owned\"}").get("id").asText();
+        taskId = create(owner, "/api/tasks",
+            "{\"title\": \"Owned task\", \"category\": {\"id\": \"" + categoryId + "\"}}").get("id").asText();
+    }
+    
+    @Test
+    void readsOfAnotherTenantsTaskFindNothing() throws Exception {
+        mockMvc.perform(as(other, get("/api/tasks/" + taskId))).andExpect(status().isNotFound());
+        mockMvc.perform(as(other, get("/api/tasks/" + taskId + "?includeArchived=true"))).andExpect(status().isNotFound());
+        mockMvc.perform(as(other, get("/api/tasks/category/" + categoryId))).andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(as(other, get("/api/tasks"))).andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.id == '" + taskId + "')]").isEmpty());
+    }
+    
+    @Test
+    void writesToAnotherTenantsTaskFindNothing() throws Exception {
+        mockMvc.perform(as(other, put("/api/tasks/" + taskId))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\": \"Taken over\"}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(as(other, patch("/api/tasks/" + taskId + "/status"))
+                .contentType(MediaType.APPLICATION_JSON).content("\"COMPLETED\""))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(as(other, post("/api/tasks/" + taskId + "/archive"))).andExpect(status().isNotFound());
+        mockMvc.perform(as(other, delete("/api/tasks/" + taskId))).andExpect(status().isNotFound());
+        
+        assertUnchanged();
+    }
+    
+    @Test
+    void batchesNamingAnotherTenantsTaskFailForIt() throws Exception {
+        mockMvc.perform(as(other, patch("/api/tasks/batch/status"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [\"" + taskId + "\"], \"status\": \"COMPLETED\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].outcome").value("FAILED"));
+        mockMvc.perform(as(other, delete("/api/tasks/batch"))
+                .contentType(MediaType.APPLICATION_JSON).content("[\"" + taskId + "\"]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].outcome").value("FAILED"));
+        mockMvc.perform(as(other, post("/api/tasks/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\": \"Borrowed category\", \"category\": {\"id\": \"" + categoryId + "\"}}]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].outcome").value("FAILED"));
+        
+        assertUnchanged();
+    }
+    
+    @Test
+    void anotherTenantCannotRestoreAnArchivedTask() throws Exception {
+        mockMvc.perform(as(owner, patch("/api/tasks/" + taskId + "/status"))
+                .contentType(MediaType.APPLICATION_JSON).content("\"COMPLETED\""))
+            .andExpect(status().isOk());
+        mockMvc.perform(as(owner, post("/api/tasks/" + taskId + "/archive"))).andExpect(status().isOk());
+        
+        mockMvc.perform(as(other, post("/api/tasks/" + taskId + "/restore"))).andExpect(status().isNotFound());
+        mockMvc.perform(as(owner, post("/api/tasks/" + taskId + "/restore"))).andExpect(status().isOk());
+    }
+    
+    private void assertUnchanged() throws Exception {
+        JsonNode task = objectMapper.readTree(mockMvc.perform(as(owner, get("/api/tasks/" + taskId)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        assertThat(task.get("title").asText()).isEqualTo("Owned task");
+        assertThat(task.get("status").asText()).isEqualTo("PENDING");
+        assertThat(task.get("version").asLong()).isZero();
+    }
+    
+    private JsonNode create(String tenant, String path, String body) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(as(tenant, post(path))
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+    }
+    
+    private static MockHttpServletRequestBuilder as(String tenant, MockHttpServletRequestBuilder request) {
+        return request.header(TENANT_HEADER, tenant);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskapi.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+    
+    // One permit, and a request that cannot get it is turned away at once
+    private final AdmissionControlFilter filter =
+        new AdmissionControlFilter(new SimpleMeterRegistry(), 1, Duration.ZERO);
+    
+    @Test
+    void anAsyncRequestHoldsItsPermitUntilItCompletes() throws Exception {
+        MockHttpServletRequest export = request("/api/tasks/export");
+        filter.doFilter(export, new MockHttpServletResponse(), startingAsync());
+        
+        assertThat(statusOf(request("/api/tasks"))).isEqualTo(503);
+        export.getAsyncContext().complete();
+        assertThat(statusOf(request("/api/tasks"))).isEqualTo(200);
+    }
+    
+    @Test
+    void eventStreamsAndLongPollsReleaseTheirPermitWhenTheThreadReturns() throws Exception {
+        filter.doFilter(request("/api/tasks/events"), new MockHttpServletResponse(), startingAsync());
+        assertThat(statusOf(request("/api/tasks"))).isEqualTo(200);
+        
+        MockHttpServletRequest longPoll = request("/api/tasks/changes");
+        longPoll.setParameter("wait", "30");
+        filter.doFilter(longPoll, new MockHttpServletResponse(), startingAsync());
+        assertThat(statusOf(request("/api/tasks"))).isEqualTo(200);
+    }
+    
+    @Test
+    void aSynchronousRequestReleasesItsPermitWhenItReturns() throws Exception {
+        assertThat(statusOf(request("/api/tasks"))).isEqualTo(200);
+        assertThat(statusOf(request("/api/tasks"))).isEqualTo(200);
+    }
+    
+    private int statusOf(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+    
+    private static MockFilterChain startingAsync() {
+        return new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                ((HttpServletRequest) request).startAsync();
+            }
+        };
+    }
+    
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.taskapi.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTest {
+    
+    // The gateway's addresses, as a deployment behind one would configure them
+    private static final List<String> PROXIES = List.of("10.0.0.0/8", "192.168.0.0/16", "::1");
+    
+    @Test
+    void noProxyIsTrustedUnlessConfigured() {
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), 50, 100, 5, 2, 25, 1000, List.of(), "X-Client-Id");
+        MockHttpServletRequest request = request("10.0.0.5", "198.51.100.1");
+        request.addHeader("X-Client-Id", "acme");
+        
+        assertThat(filter.client(request)).isEqualTo("10.0.0.5");
+        assertThat(filter.client(request("127.0.0.1", "198.51.100.1"))).isEqualTo("127.0.0.1");
+    }
+    
+    @Test
+    void directClientsAreTheirAddressWhateverTheyForward() {
+        RateLimitFilter filter = filter("");
+        
+        assertThat(filter.client(request("203.0.113.7", "198.51.100.1"))).isEqualTo("203.0.113.7");
+    }
+    
+    @Test
+    void clientsBehindTrustedProxiesAreTheFirstUntrustedForwardedAddressFromTheRight() {
+        RateLimitFilter filter = filter("");
+        
+        assertThat(filter.client(request("10.0.0.5", "198.51.100.1"))).isEqualTo("198.51.100.1");
+        // The leftmost entry is whatever the client sent and is not believed
+        assertThat(filter.client(request("10.0.0.5", "1.2.3.4, 198.51.100.1, 10.0.0.9"))).isEqualTo("198.51.100.1");
+        assertThat(filter.client(request("0:0:0:0:0:0:0:1", "2001:db8::1"))).isEqualTo("2001:db8::1");
+        assertThat(filter.client(request("10.0.0.5", null))).isEqualTo("10.0.0.5");
+        assertThat(filter.client(request("10.0.0.5", "192.168.1.2"))).isEqualTo("192.168.1.2");
+    }
+    
+    @Test
+    void theClientHeaderIsOnlyBelievedFromTrustedProxies() {
+        RateLimitFilter filter = filter("X-Client-Id");
+        MockHttpServletRequest viaGateway = request("10.0.0.5", "198.51.100.1");
+        viaGateway.addHeader("X-Client-Id", "acme");
+        MockHttpServletRequest direct = request("203.0.113.7", null);
+        direct.addHeader("X-Client-Id", "acme");
+        
+        assertThat(filter.client(viaGateway)).isEqualTo("id:acme");
+        assertThat(filter.client(direct)).isEqualTo("203.0.113.7");
+    }
+    
+    @Test
+    void clientsBehindTheGatewayGetBucketsOfTheirOwn() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), 1, 5, 5, 2, 25, 1000, PROXIES, "");
+        
+        assertThat(status(filter, request("10.0.0.5", "198.51.100.1"))).isEqualTo(200);
+        assertThat(status(filter, request("10.0.0.5", "198.51.100.1"))).isEqualTo(429);
+        assertThat(status(filter, request("10.0.0.5", "198.51.100.2"))).isEqualTo(200);
+    }
+    
+    @Test
+    void rangesAreMatchedByPrefix() {
+        RateLimitFilter.AddressRange range = RateLimitFilter.AddressRange.parse("172.16.0.0/12");
+        
+        assertThat(range.contains(RateLimitFilter.AddressRange.literal("172.31.255.255"))).isTrue();
+        assertThat(range.contains(RateLimitFilter.AddressRange.literal("172.32.0.1"))).isFalse();
+        assertThat(range.contains(RateLimitFilter.AddressRange.literal("::1"))).isFalse();
+        assertThat(RateLimitFilter.AddressRange.literal("gateway.example.com")).isNull();
+        assertThatThrownBy(() -> RateLimitFilter.AddressRange.parse("10.0.0.0/33"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static RateLimitFilter filter(String clientHeader) {
+        return new RateLimitFilter(new SimpleMeterRegistry(), 50, 100, 5, 2, 25, 1000, PROXIES, clientHeader);
+    }
+    
+    private static int status(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+    
+    private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
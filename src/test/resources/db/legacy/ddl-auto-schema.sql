@@ -0,0 +1,10 @@
+-- The schema the first release (eaaf564) created on PostgreSQL with ddl-auto=update, as Hibernate logged it.
+-- The names of the unique and foreign key constraints are Hibernate's generated ones.
+
+create table categories (id bigserial not null, created_at timestamp(6) not null, description varchar(500), name varchar(255) not null, updated_at timestamp(6), primary key (id));
+create table tasks (id bigserial not null, completed_at timestamp(6), created_at timestamp(6) not null, description varchar(2000), due_date timestamp(6), priority varchar(255) not null check (priority in ('LOW','MEDIUM','HIGH','URGENT')), status varchar(255) not null check (status in ('PENDING','IN_PROGRESS','COMPLETED','CANCELLED')), title varchar(255) not null, updated_at timestamp(6), category_id bigint, primary key (id));
+alter table if exists categories add constraint UK_t8o6pivur7nn124jehx7cygw5 unique (name);
+alter table if exists tasks add constraint FK19nbrmutuqhlidppwns1wmfro foreign key (category_id) references categories;
+
+insert into categories (name, description, created_at) values ('Legacy', 'created by ddl-auto', now());
+insert into tasks (title, priority, status, category_id, created_at) values ('Legacy task', 'HIGH', 'PENDING', 1, now());